@@ -0,0 +1,157 @@
+package org.example.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Синтетические сообщения сервера. Генератор с фиксированным зерном: одинаковые входные данные в каждом запуске
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 20240601L;
+
+    /**
+     * Ширина трассы, как у сервера
+     */
+    public static final int TRACK_WIDTH = 5;
+
+    private BenchmarkData() {
+    }
+
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+    /**
+     * JSON-массив лобби в формате ответа MULTIPLAY_ACK_SUCCESS
+     */
+    public static String lobbiesJson(int count) {
+        Random random = random();
+        StringBuilder json = new StringBuilder(count * 128).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            int players = random.nextInt(3);
+            json.append("{\"id\":").append(i)
+                    .append(",\"name_of_lobby\":\"lobby_").append(i).append('"')
+                    .append(",\"count_of_players\":").append(players)
+                    .append(",\"player1\":").append(players > 0 ? "\"player" + random.nextInt(10_000) + "\"" : "null")
+                    .append(",\"player2\":").append(players > 1 ? "\"player" + random.nextInt(10_000) + "\"" : "null")
+                    .append(",\"starting_game\":").append(players == 2 && random.nextBoolean())
+                    .append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Таблица лидеров по победам
+     */
+    public static String topScoresByWinsJson(int count) {
+        Random random = random();
+        StringBuilder json = new StringBuilder(count * 48).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"username\":\"player").append(i)
+                    .append("\",\"wins\":").append(random.nextInt(1000)).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Таблица лидеров по времени
+     */
+    public static String topScoresByTimeJson(int count) {
+        Random random = random();
+        StringBuilder json = new StringBuilder(count * 56).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"username\":\"player").append(i)
+                    .append("\",\"best_time\":").append(10_000 + random.nextInt(90_000) / 10.0).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Стартовое состояние с трассой из rows строк, примерно каждая пятая клетка - препятствие
+     */
+    public static String gameStateJson(int rows) {
+        Random random = random();
+        StringBuilder json = new StringBuilder(rows * (TRACK_WIDTH * 2 + 3) + 32).append("{\"game_field\":[");
+        for (int y = 0; y < rows; y++) {
+            if (y > 0) {
+                json.append(',');
+            }
+            json.append('[');
+            for (int x = 0; x < TRACK_WIDTH; x++) {
+                if (x > 0) {
+                    json.append(',');
+                }
+                json.append(random.nextInt(5) == 0 ? '1' : '0');
+            }
+            json.append(']');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Трасса в виде массива, как её присылает сервер
+     */
+    public static int[][] gameField(int rows) {
+        Random random = random();
+        int[][] field = new int[rows][TRACK_WIDTH];
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < TRACK_WIDTH; x++) {
+                field[y][x] = random.nextInt(5) == 0 ? 1 : 0;
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Смесь сообщений сервера, типичная для меню и лобби
+     */
+    public static String[] serverMessages(int count) {
+        Random random = random();
+        String lobbies = "MULTIPLAY_ACK_SUCCESS " + lobbiesJson(20);
+        String[] templates = {
+                "CONNECT_ACK",
+                "USER_ACK_CHECK",
+                "PASS_ACK_SUCCESS",
+                lobbies,
+                "JOIN_LOBBY_ID_ACK_SUCCESS",
+                "PLAYER_JOINED/opponent42",
+                "LOBBY_START_GAME",
+                "WIN/25190/31020",
+                "LOSE/31020/25190",
+                "MULTILPLAY_TOP_SCORES_LIST_BY_WINS " + topScoresByWinsJson(10),
+                "UNKNOWN_COMMAND"
+        };
+        String[] messages = new String[count];
+        for (int i = 0; i < count; i++) {
+            messages[i] = templates[random.nextInt(templates.length)];
+        }
+        return messages;
+    }
+
+    /**
+     * Строки из латинских букв, цифр, спецсимволов и изредка недопустимых символов, длиной до maxLength
+     */
+    public static String[] credentials(int count, int maxLength) {
+        Random random = random();
+        String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!@#$%^&*()_+-=[]{};':\"\\|,.<>/? ";
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = 1 + random.nextInt(maxLength);
+            StringBuilder value = new StringBuilder(length);
+            for (int j = 0; j < length; j++) {
+                value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            values[i] = value.toString();
+        }
+        return values;
+    }
+}
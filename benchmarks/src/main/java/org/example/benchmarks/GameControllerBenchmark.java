@@ -0,0 +1,101 @@
+package org.example.benchmarks;
+
+import org.example.game.GameController;
+import org.example.game.Viewport;
+import org.example.listener.ServerListener;
+import org.example.model.Track;
+import org.example.session.GameSession;
+import org.example.transport.Transport;
+import org.example.transport.TransportListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Шаг симуляции и чтение видимой части трассы через Viewport (бывший getVisibleGameField)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameControllerBenchmark {
+
+    /**
+     * Строка трассы проходится за 100 шагов, такой трассы хватает на итерацию без финиша
+     */
+    private static final int TRACK_ROWS = 1_000_000;
+    private static final int VISIBLE_ROWS = 10;
+
+    private Track track;
+    private GameSession session;
+    private GameController controller;
+    private Viewport viewport;
+    private int firstRow;
+
+    @Setup
+    public void setUp() {
+        track = Track.of(BenchmarkData.gameField(TRACK_ROWS));
+        session = new GameSession(new ServerListener(new DiscardingTransport(), event -> {
+        }));
+        viewport = new Viewport(track, VISIBLE_ROWS);
+    }
+
+    @Setup(Level.Iteration)
+    public void newRace() {
+        controller = new GameController(track, session);
+        firstRow = 0;
+    }
+
+    @Benchmark
+    public void update() {
+        controller.update();
+    }
+
+    @Benchmark
+    public void scrollAndReadVisibleRows(Blackhole blackhole) {
+        firstRow = firstRow + 1 < TRACK_ROWS ? firstRow + 1 : 0;
+        viewport.scrollTo(firstRow);
+        for (int y = 0; y <= VISIBLE_ROWS; y++) {
+            blackhole.consume(viewport.rowBits(y));
+        }
+    }
+
+    /**
+     * Транспорт без соединения: сообщения симуляции никуда не отправляются
+     */
+    private static final class DiscardingTransport implements Transport {
+        @Override
+        public void start(TransportListener listener) {
+        }
+
+        @Override
+        public void send(String message) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return "benchmark";
+        }
+    }
+}
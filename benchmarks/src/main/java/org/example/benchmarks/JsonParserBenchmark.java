@@ -0,0 +1,84 @@
+package org.example.benchmarks;
+
+import org.example.jsonparser.JsonParser;
+import org.example.model.GameState;
+import org.example.model.Lobby;
+import org.example.model.TopScoresByTime;
+import org.example.model.TopScoresByWins;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор JSON-ответов сервера: списки лобби, таблицы лидеров и стартовое состояние
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonParserBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Lists {
+        @Param({"10", "100", "1000"})
+        public int size;
+
+        public String lobbies;
+        public String topScoresByWins;
+        public String topScoresByTime;
+
+        @Setup
+        public void setUp() {
+            lobbies = BenchmarkData.lobbiesJson(size);
+            topScoresByWins = BenchmarkData.topScoresByWinsJson(size);
+            topScoresByTime = BenchmarkData.topScoresByTimeJson(size);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Start {
+        @Param({"1000", "100000", "1000000"})
+        public int rows;
+
+        public String gameState;
+
+        @Setup
+        public void setUp() {
+            gameState = BenchmarkData.gameStateJson(rows);
+        }
+    }
+
+    @Benchmark
+    public Optional<List<Lobby>> parseLobbies(Lists lists) {
+        return JsonParser.parseLobbies(new StringReader(lists.lobbies));
+    }
+
+    @Benchmark
+    public Optional<List<TopScoresByWins>> parseTopScoresByWins(Lists lists) {
+        return JsonParser.parseTopScoresByWins(new StringReader(lists.topScoresByWins));
+    }
+
+    @Benchmark
+    public Optional<List<TopScoresByTime>> parseTopScoresByTime(Lists lists) {
+        return JsonParser.parseTopScoresByTime(new StringReader(lists.topScoresByTime));
+    }
+
+    @Benchmark
+    public Optional<GameState> parseGameState(Start start) {
+        return JsonParser.parseGameState(new StringReader(start.gameState));
+    }
+}
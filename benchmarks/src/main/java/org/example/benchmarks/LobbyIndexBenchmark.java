@@ -0,0 +1,94 @@
+package org.example.benchmarks;
+
+import org.example.jsonparser.JsonParser;
+import org.example.lobby.LobbyIndex;
+import org.example.lobby.LobbyQuery;
+import org.example.model.Lobby;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы к индексу лобби с экрана лобби: поиск по строке, фильтр свободных мест с сортировкой, быстрая игра,
+ * а также обновление одного лобби по подписке
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LobbyIndexBenchmark {
+
+    @Param({"10000", "50000"})
+    private int lobbyCount;
+
+    private static final LobbyQuery SEARCH_NAME = LobbyQuery.builder().text("by_42").build();
+    private static final LobbyQuery SEARCH_PLAYER = LobbyQuery.builder().playerPrefix("player12").build();
+    private static final LobbyQuery FREE_BY_NAME = LobbyQuery.builder()
+            .minFreeSlots(1)
+            .startingGame(false)
+            .order(LobbyQuery.Order.NAME)
+            .limit(100)
+            .build();
+
+    private final LobbyIndex index = new LobbyIndex();
+    private Lobby original;
+    private Lobby changed;
+    private boolean toggle;
+
+    @Setup
+    public void setUp() {
+        List<Lobby> lobbies = parse(BenchmarkData.lobbiesJson(lobbyCount));
+        index.applySnapshot(lobbies);
+        original = lobbies.get(0);
+        changed = parse("[{\"id\":0,\"name_of_lobby\":\"lobby_0\",\"count_of_players\":1,"
+                + "\"player1\":\"changed\",\"player2\":null,\"starting_game\":false}]").get(0);
+    }
+
+    @Benchmark
+    public List<Lobby> searchName() {
+        return index.find(SEARCH_NAME);
+    }
+
+    @Benchmark
+    public List<Lobby> searchPlayer() {
+        return index.find(SEARCH_PLAYER);
+    }
+
+    @Benchmark
+    public List<Lobby> freeSortedByName() {
+        return index.find(FREE_BY_NAME);
+    }
+
+    @Benchmark
+    public Optional<Lobby> quickJoin() {
+        return index.quickJoin();
+    }
+
+    /**
+     * Изменения чередуются, чтобы каждое действительно меняло лобби
+     */
+    @Benchmark
+    public boolean put() {
+        toggle = !toggle;
+        return index.put(toggle ? changed : original);
+    }
+
+    private static List<Lobby> parse(String json) {
+        return JsonParser.parseLobbies(new StringReader(json)).orElseThrow(IllegalStateException::new);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.benchmarks;
+
+import org.example.jsonparser.JsonParser;
+import org.example.lobby.LobbyListModel;
+import org.example.model.Lobby;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Применение обновлений к списку лобби: повторный полный список без изменений и пачка изменений по подписке.
+ * Отрисовка не входит: ListView перерисовывает только видимые ячейки изменившихся строк
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LobbyListModelBenchmark {
+
+    @Param({"1000", "5000"})
+    private int lobbyCount;
+
+    /**
+     * Сколько лобби меняется в одной пачке изменений
+     */
+    private static final int CHANGED_COUNT = 50;
+
+    private final LobbyListModel model = new LobbyListModel();
+    private List<Lobby> snapshot;
+    private List<Lobby> changed;
+    private List<Lobby> original;
+    private boolean toggle;
+
+    @Setup
+    public void setUp() {
+        snapshot = parse(BenchmarkData.lobbiesJson(lobbyCount));
+        original = snapshot.subList(0, CHANGED_COUNT);
+        changed = parse(changedLobbiesJson(CHANGED_COUNT));
+        model.applySnapshot(snapshot);
+    }
+
+    @Benchmark
+    public int unchangedSnapshot() {
+        model.applySnapshot(snapshot);
+        return model.size();
+    }
+
+    /**
+     * Пачки чередуются, чтобы каждая действительно меняла лобби
+     */
+    @Benchmark
+    public int delta() {
+        toggle = !toggle;
+        model.putAll(toggle ? changed : original);
+        return model.size();
+    }
+
+    private static List<Lobby> parse(String json) {
+        return JsonParser.parseLobbies(new StringReader(json)).orElseThrow(IllegalStateException::new);
+    }
+
+    private static String changedLobbiesJson(int count) {
+        StringBuilder json = new StringBuilder(count * 128).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name_of_lobby\":\"lobby_").append(i).append('"')
+                    .append(",\"count_of_players\":1,\"player1\":\"changed").append(i)
+                    .append("\",\"player2\":null,\"starting_game\":false}");
+        }
+        return json.append(']').toString();
+    }
+}
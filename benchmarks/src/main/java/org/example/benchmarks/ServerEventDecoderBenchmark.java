@@ -0,0 +1,57 @@
+package org.example.benchmarks;
+
+import org.example.event.ServerEvent;
+import org.example.event.ServerEventDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор строки сервера в событие. Это вся работа, которая раньше выполнялась в Client.handleServerResponse
+ * до изменения сцены; применение события к сцене требует запущенного JavaFX и здесь не измеряется
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerEventDecoderBenchmark {
+
+    private static final int MESSAGE_COUNT = 1024;
+
+    private final ServerEventDecoder decoder = new ServerEventDecoder();
+    private String[] messages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        messages = BenchmarkData.serverMessages(MESSAGE_COUNT);
+    }
+
+    @Benchmark
+    public ServerEvent decodeMixed() {
+        String message = messages[next];
+        next = (next + 1) & (MESSAGE_COUNT - 1);
+        return decoder.decode(message);
+    }
+
+    @Benchmark
+    public ServerEvent decodeCommandOnly() {
+        return decoder.decode("LOBBY_START_GAME");
+    }
+
+    @Benchmark
+    public ServerEvent decodeGameResult() {
+        return decoder.decode("WIN/25190/31020");
+    }
+}
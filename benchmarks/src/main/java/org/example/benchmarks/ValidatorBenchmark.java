@@ -0,0 +1,81 @@
+package org.example.benchmarks;
+
+import org.example.validator.PasswordValidator;
+import org.example.validator.UsernameValidator;
+import org.example.validator.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Валидаторы на наборах правил против прежних регулярных выражений, которые компилировались на каждый вызов
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private static final String LEGACY_USERNAME_REGEX = "^(?=.*\\d)(?=.*[a-zA-Z])[a-zA-Z\\d!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>/?]{5,20}$";
+    private static final String LEGACY_PASSWORD_REGEX = "^(?=.*[A-Z])(?=.*[a-z])(?=.*\\d)(?=.*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>/?])[a-zA-Z\\d!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>/?]{5,}$";
+
+    private static final int INPUT_COUNT = 1024;
+
+    private final Validator usernameValidator = new UsernameValidator();
+    private final Validator passwordValidator = new PasswordValidator();
+    private final Pattern precompiledUsername = Pattern.compile(LEGACY_USERNAME_REGEX);
+
+    private String[] inputs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        inputs = BenchmarkData.credentials(INPUT_COUNT, 24);
+    }
+
+    private String nextInput() {
+        String input = inputs[next];
+        next = (next + 1) & (INPUT_COUNT - 1);
+        return input;
+    }
+
+    @Benchmark
+    public boolean usernameRules() {
+        return usernameValidator.validate(nextInput());
+    }
+
+    @Benchmark
+    public boolean usernameLegacyRegex() {
+        return Pattern.compile(LEGACY_USERNAME_REGEX).matcher(nextInput()).matches();
+    }
+
+    /**
+     * Регулярное выражение без повторной компиляции: сколько стоит само сопоставление
+     */
+    @Benchmark
+    public boolean usernamePrecompiledRegex() {
+        return precompiledUsername.matcher(nextInput()).matches();
+    }
+
+    @Benchmark
+    public boolean passwordRules() {
+        return passwordValidator.validate(nextInput());
+    }
+
+    @Benchmark
+    public boolean passwordLegacyRegex() {
+        return Pattern.compile(LEGACY_PASSWORD_REGEX).matcher(nextInput()).matches();
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Задержки запрос-ответ по командам. Все значения хранятся, перцентили считаются сортировкой в конце прогона
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    public void record(String command, long latencyNanos) {
+        Samples commandSamples;
+        synchronized (samples) {
+            commandSamples = samples.get(command);
+            if (commandSamples == null) {
+                commandSamples = new Samples();
+                samples.put(command, commandSamples);
+            }
+        }
+        commandSamples.add(latencyNanos);
+    }
+
+    /**
+     * Таблица: команда, количество, p50, p90, p99, p99.9 и максимум в миллисекундах
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format("%-28s %9s %9s %9s %9s %9s %9s%n",
+                "команда", "кол-во", "p50 мс", "p90 мс", "p99 мс", "p99.9 мс", "макс мс"));
+        synchronized (samples) {
+            for (Map.Entry<String, Samples> entry : samples.entrySet()) {
+                long[] sorted = entry.getValue().sorted();
+                report.append(String.format("%-28s %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), sorted.length,
+                        millis(percentile(sorted, 0.5)), millis(percentile(sorted, 0.9)),
+                        millis(percentile(sorted, 0.99)), millis(percentile(sorted, 0.999)),
+                        millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+            }
+        }
+        return report.toString();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int size;
+
+        private synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.benchmarks.load;
+
+import org.example.benchmarks.BenchmarkData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный прогон: N клиентов без интерфейса против локального сервера-заменителя.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.example.benchmarks.load.LoadGenerator clients=1000 transport=nio
+ * </pre>
+ * Параметры в виде ключ=значение:
+ * clients (число клиентов, по умолчанию 200), rows (длина трассы, 1000), moves (ходов за заезд, 50),
+ * transport (socket или nio), connectThreads (потоков подключения, 16), timeoutSeconds (120),
+ * server (host:port внешнего сервера вместо локального),
+ * dropEveryMillis (обрывать все соединения локального сервера с этим периодом, проверка восстановления сеансов).
+ * Уровень журнала клиентов задаётся -Drally.log.level, по умолчанию WARN.
+ * Настройки сокета клиентов - свойствами rally.socket.* (см. {@link org.example.transport.SocketProfile}),
+ * их влияние видно по задержкам ответов в отчёте.
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Журнал протокола тысяч клиентов измерял бы скорость консоли, по умолчанию только предупреждения
+        if (System.getProperty("rally.log.level") == null) {
+            System.setProperty("rally.log.level", "WARN");
+        }
+
+        Map<String, String> options = parse(args);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "1000"));
+        int moves = Integer.parseInt(options.getOrDefault("moves", "50"));
+        boolean nio = "nio".equals(options.getOrDefault("transport", "socket"));
+        int connectThreads = Integer.parseInt(options.getOrDefault("connectThreads", "16"));
+        long timeoutSeconds = Long.parseLong(options.getOrDefault("timeoutSeconds", "120"));
+        String server = options.get("server");
+        long dropEveryMillis = Long.parseLong(options.getOrDefault("dropEveryMillis", "0"));
+
+        StandInServer standIn = null;
+        String host;
+        int port;
+        if (server == null) {
+            // Лобби на каждую пару клиентов
+            standIn = new StandInServer(0, (clients + 1) / 2, rows);
+            standIn.start();
+            host = "127.0.0.1";
+            port = standIn.getPort();
+            if (dropEveryMillis > 0) {
+                startDropping(standIn, dropEveryMillis);
+            }
+        } else {
+            int separator = server.lastIndexOf(':');
+            host = server.substring(0, separator);
+            port = Integer.parseInt(server.substring(separator + 1));
+        }
+
+        LatencyRecorder latencies = new LatencyRecorder();
+        CountDownLatch done = new CountDownLatch(clients);
+        List<SimulatedClient> simulated = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            simulated.add(new SimulatedClient(i, i / 2, moves, BenchmarkData.SEED, latencies, done));
+        }
+
+        System.out.printf("Клиентов: %d, транспорт: %s, трасса: %d строк, ходов: %d, сервер: %s:%d%n",
+                clients, nio ? "nio" : "socket", rows, moves, host, port);
+
+        ExecutorService connector = Executors.newFixedThreadPool(connectThreads);
+        long startNanos = System.nanoTime();
+        for (SimulatedClient client : simulated) {
+            connector.execute(() -> {
+                try {
+                    client.connect(host, port, nio);
+                } catch (IOException e) {
+                    System.err.println("Не удалось подключиться: " + e.getMessage());
+                    client.onConnectionLost();
+                }
+            });
+        }
+
+        boolean completed = done.await(timeoutSeconds, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        connector.shutdown();
+
+        int failed = 0;
+        for (SimulatedClient client : simulated) {
+            if (client.isFailed()) {
+                failed++;
+            }
+        }
+        long finishedCount = clients - done.getCount();
+        double seconds = elapsedNanos / 1e9;
+
+        System.out.printf("%nГотово за %.2f с%s%n", seconds, completed ? "" : " (истёк таймаут)");
+        System.out.printf("Сеансов: %d завершено, %d с ошибкой, %d не закончено%n",
+                finishedCount - failed, failed, done.getCount());
+        System.out.printf("Пропускная способность: %.1f сеансов/с%n", (finishedCount - failed) / seconds);
+        if (standIn != null) {
+            System.out.printf("Сообщений: %d от клиентов, %d от сервера, %.0f сообщений/с%n",
+                    standIn.getReceivedCount(), standIn.getSentCount(),
+                    (standIn.getReceivedCount() + standIn.getSentCount()) / seconds);
+            standIn.close();
+        }
+        System.out.println();
+        System.out.print(latencies.report());
+
+        System.exit(completed && failed == 0 ? 0 : 1);
+    }
+
+    /**
+     * Периодический обрыв всех соединений, как при сбоях сети у игроков
+     */
+    private static void startDropping(StandInServer standIn, long periodMillis) {
+        ScheduledExecutorService dropper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-dropper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dropper.scheduleAtFixedRate(standIn::dropConnections, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Ожидался параметр вида ключ=значение: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.benchmarks.load;
+
+import org.example.event.ServerEvent;
+import org.example.serverConfig.EndpointProber;
+import org.example.serverConfig.ServerEndpoint;
+import org.example.session.GameSession;
+import org.example.session.SessionListener;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка выбора сервера: несколько локальных серверов-заменителей с разной задержкой ответа
+ * и один адрес, на котором никто не слушает.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.example.benchmarks.load.ServerSelectionRun delays=80,5,40
+ * </pre>
+ * Сначала печатается рейтинг серверов, затем клиент подключается к самому быстрому.
+ * После остановки самого быстрого сервера подключение должно уйти на следующий.
+ */
+public final class ServerSelectionRun {
+
+    private ServerSelectionRun() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("rally.log.level") == null) {
+            System.setProperty("rally.log.level", "WARN");
+        }
+
+        String delays = "80,5,40";
+        for (String arg : args) {
+            if (arg.startsWith("delays=")) {
+                delays = arg.substring("delays=".length());
+            }
+        }
+
+        List<StandInServer> servers = new ArrayList<>();
+        List<ServerEndpoint> endpoints = new ArrayList<>();
+        endpoints.add(new ServerEndpoint("127.0.0.1", unusedPort()));
+        ServerEndpoint fastest = null;
+        long fastestDelay = Long.MAX_VALUE;
+        for (String delay : delays.split(",")) {
+            long delayMillis = Long.parseLong(delay.trim());
+            StandInServer server = new StandInServer(0, 1, 10, delayMillis);
+            server.start();
+            servers.add(server);
+            ServerEndpoint endpoint = new ServerEndpoint("127.0.0.1", server.getPort());
+            endpoints.add(endpoint);
+            if (delayMillis < fastestDelay) {
+                fastest = endpoint;
+                fastestDelay = delayMillis;
+            }
+            System.out.printf("Сервер 127.0.0.1:%d, задержка ответа %d мс%n", server.getPort(), delayMillis);
+        }
+
+        System.out.println();
+        for (EndpointProber.ProbeResult result : new EndpointProber(1_000).probe(endpoints)) {
+            System.out.println(result);
+        }
+
+        System.out.println();
+        ServerEndpoint first = connectAndWait(endpoints);
+        System.out.println("Подключение: " + first);
+
+        for (int i = 0; i < servers.size(); i++) {
+            if (endpoints.get(i + 1).equals(first)) {
+                servers.get(i).close();
+                System.out.println("Сервер " + first + " остановлен");
+            }
+        }
+        ServerEndpoint second = connectAndWait(endpoints);
+        System.out.println("Подключение после отказа: " + second);
+
+        for (StandInServer server : servers) {
+            server.close();
+        }
+
+        boolean ok = true;
+        if (!first.equals(fastest)) {
+            System.out.println("Ошибка: выбран не самый быстрый сервер " + fastest);
+            ok = false;
+        }
+        if (first.equals(second)) {
+            System.out.println("Ошибка: после отказа подключение осталось на том же сервере");
+            ok = false;
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * Подключение через выбор сервера и ожидание CONNECT_ACK
+     *
+     * @return сервер, к которому подключился клиент
+     */
+    private static ServerEndpoint connectAndWait(List<ServerEndpoint> endpoints) throws IOException, InterruptedException {
+        CountDownLatch acknowledged = new CountDownLatch(1);
+        GameSession session = GameSession.connect(endpoints, new SessionListener() {
+            @Override
+            public void onEvent(ServerEvent event) {
+                acknowledged.countDown();
+            }
+        });
+        if (!acknowledged.await(5, TimeUnit.SECONDS)) {
+            throw new IOException("Нет CONNECT_ACK");
+        }
+        ServerEndpoint endpoint = session.getEndpoint();
+        session.disconnect();
+        return endpoint;
+    }
+
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
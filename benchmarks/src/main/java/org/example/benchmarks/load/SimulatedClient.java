@@ -0,0 +1,160 @@
+package org.example.benchmarks.load;
+
+import org.example.event.ServerCommand;
+import org.example.event.ServerEvent;
+import org.example.session.GameSession;
+import org.example.session.SessionListener;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Клиент без интерфейса, проходящий сценарий CONNECT, USER, PASS, MULTIPLAY, JOIN_LOBBY_ID, READY,
+ * ходы, FINISH и DISCONNECT. Каждый следующий шаг отправляется из сетевого потока в ответ на событие сервера
+ */
+public class SimulatedClient implements SessionListener {
+
+    private static final String PASSWORD = "Load1!";
+
+    private final int index;
+    private final int lobbyId;
+    private final int moves;
+    private final Random random;
+    private final LatencyRecorder latencies;
+    private final CountDownLatch done;
+
+    private GameSession session;
+    private volatile boolean finished;
+    private volatile boolean failed;
+
+    /**
+     * Команда, на которую ждём ответа, и время её отправки
+     */
+    private String pendingCommand;
+    private long pendingSince;
+
+    /**
+     * @param lobbyId лобби, в которое клиент заходит; два клиента с одним лобби играют друг против друга
+     * @param moves   сколько ходов сделать за заезд
+     */
+    public SimulatedClient(int index, int lobbyId, int moves, long seed, LatencyRecorder latencies, CountDownLatch done) {
+        this.index = index;
+        this.lobbyId = lobbyId;
+        this.moves = moves;
+        this.random = new Random(seed + index);
+        this.latencies = latencies;
+        this.done = done;
+    }
+
+    public void connect(String host, int port, boolean nio) throws IOException {
+        synchronized (this) {
+            expect("CONNECT");
+            session = nio ? GameSession.connectNio(host, port, this) : GameSession.connect(host, port, this);
+        }
+    }
+
+    @Override
+    public synchronized void onEvent(ServerEvent event) {
+        ServerCommand command = event.getCommand();
+        switch (command) {
+            case CONNECT_ACK:
+                answered();
+                expect("USER");
+                session.sendUsername("load" + index);
+                break;
+            case USER_ACK_CREATE:
+            case USER_ACK_CHECK:
+                answered();
+                expect("PASS");
+                session.sendPassword(PASSWORD);
+                break;
+            case PASS_ACK_SUCCESS:
+                answered();
+                expect("MULTIPLAY");
+                session.requestLobbies();
+                break;
+            case MULTIPLAY_ACK_SUCCESS:
+                answered();
+                expect("JOIN_LOBBY_ID");
+                session.joinLobby(lobbyId);
+                break;
+            case JOIN_LOBBY_ID_ACK_SUCCESS:
+                answered();
+                break;
+            case PLAYER_JOINED:
+                // Ответ READY - старт, когда оба игрока готовы, поэтому в задержку входит ожидание соперника
+                expect("READY");
+                session.ready();
+                break;
+            case START:
+                answered();
+                race();
+                break;
+            case WIN:
+            case LOSE:
+            case DRAW:
+                answered();
+                expect("DISCONNECT");
+                session.disconnect();
+                break;
+            case DISCONNECT_ACK:
+                answered();
+                complete(false);
+                break;
+            case LEFT_JOINED:
+                // Соперник вышел до старта, ждём следующего
+                break;
+            default:
+                complete(true);
+        }
+    }
+
+    @Override
+    public synchronized void onConnectionLost() {
+        complete(true);
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Заезд без отрисовки: ходы отправляются сразу, время финиша - случайное
+     */
+    private void race() {
+        for (int i = 0; i < moves; i++) {
+            if (random.nextBoolean()) {
+                session.moveLeft();
+            } else {
+                session.moveRight();
+            }
+        }
+        expect("FINISH");
+        session.finish(20_000 + random.nextInt(20_000));
+    }
+
+    private void expect(String command) {
+        pendingCommand = command;
+        pendingSince = System.nanoTime();
+    }
+
+    private void answered() {
+        if (pendingCommand != null) {
+            latencies.record(pendingCommand, System.nanoTime() - pendingSince);
+            pendingCommand = null;
+        }
+    }
+
+    private void complete(boolean failure) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        failed = failure;
+        if (failure && session != null) {
+            session.close();
+        }
+        done.countDown();
+    }
+}
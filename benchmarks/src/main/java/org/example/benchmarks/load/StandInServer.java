@@ -0,0 +1,606 @@
+package org.example.benchmarks.load;
+
+import org.example.benchmarks.BenchmarkData;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Локальная замена игрового сервера с тем же текстовым протоколом, для нагрузочных прогонов без сети.
+ * Слушает только loopback, на каждое соединение - свой поток.
+ * Поддерживает восстановление сеанса: после входа клиент получает RESUME_TOKEN, и после обрыва сеанс ждёт его
+ * {@link #RESUME_GRACE_SECONDS} секунд, сохраняя лобби и неполученные клиентом сообщения.
+ * Поддерживает подписку LOBBY_SUBSCRIBE, клиент включает её свойством -Drally.lobby.subscribe=true.
+ */
+public class StandInServer implements Closeable {
+
+    /**
+     * Сколько сеанс ждёт клиента после обрыва
+     */
+    public static final long RESUME_GRACE_SECONDS = 30;
+
+    /**
+     * Сколько последних сообщений сеанса хранится для повторной отправки
+     */
+    private static final int MAX_UNACKED = 1024;
+
+    private final ServerSocket serverSocket;
+    private final Lobby[] lobbies;
+    private final String startMessage;
+    private final long responseDelayMillis;
+    private final Map<String, String> passwords = new ConcurrentHashMap<>();
+    private final Map<String, Integer> wins = new ConcurrentHashMap<>();
+    private final Map<String, Connection> sessions = new ConcurrentHashMap<>();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final Set<Connection> lobbySubscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService expiry = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stand-in-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong sentCount = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * @param port       порт, 0 - любой свободный
+     * @param lobbyCount сколько лобби на сервере
+     * @param trackRows  длина трассы в стартовом состоянии
+     */
+    public StandInServer(int port, int lobbyCount, int trackRows) throws IOException {
+        this(port, lobbyCount, trackRows, 0);
+    }
+
+    /**
+     * @param responseDelayMillis задержка перед каждым ответом, имитирует удалённый или загруженный сервер
+     */
+    public StandInServer(int port, int lobbyCount, int trackRows, long responseDelayMillis) throws IOException {
+        this.responseDelayMillis = responseDelayMillis;
+        this.serverSocket = new ServerSocket(port, 4096, InetAddress.getLoopbackAddress());
+        this.lobbies = new Lobby[lobbyCount];
+        for (int i = 0; i < lobbyCount; i++) {
+            lobbies[i] = new Lobby(i);
+        }
+        this.startMessage = "START " + BenchmarkData.gameStateJson(trackRows);
+    }
+
+    public void start() {
+        Thread acceptor = new Thread(this::acceptLoop, "stand-in-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * Обрыв всех текущих соединений, как при сбое сети. Сеансы с токеном ждут восстановления
+     */
+    public void dropConnections() {
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // уже закрыт
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        expiry.shutdownNow();
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread thread = new Thread(new Connection(socket), "stand-in-" + connectionCount.incrementAndGet());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Ошибка приёма соединения: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private String lobbiesMessage() {
+        StringBuilder json = new StringBuilder(lobbies.length * 128).append("MULTIPLAY_ACK_SUCCESS [");
+        for (int i = 0; i < lobbies.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            lobbies[i].appendJson(json);
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Рассылка изменившегося лобби подписчикам LOBBY_SUBSCRIBE, вызывается вне блокировки лобби
+     */
+    private void lobbyChanged(Lobby lobby) {
+        if (lobbySubscribers.isEmpty()) {
+            return;
+        }
+        StringBuilder json = new StringBuilder(160).append("LOBBY_CHANGED [");
+        lobby.appendJson(json);
+        String message = json.append(']').toString();
+        for (Connection subscriber : lobbySubscribers) {
+            subscriber.send(message);
+        }
+    }
+
+    private String topScoresByWinsMessage() {
+        StringBuilder json = new StringBuilder("MULTILPLAY_TOP_SCORES_LIST_BY_WINS [");
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : wins.entrySet()) {
+            if (count == 10) {
+                break;
+            }
+            if (count++ > 0) {
+                json.append(',');
+            }
+            json.append("{\"username\":\"").append(entry.getKey()).append("\",\"wins\":").append(entry.getValue()).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Лобби на двух игроков
+     */
+    private static final class Lobby {
+        private final int id;
+        private Connection player1;
+        private Connection player2;
+        private boolean starting;
+        private String firstFinishTime;
+
+        private Lobby(int id) {
+            this.id = id;
+        }
+
+        private synchronized void appendJson(StringBuilder json) {
+            json.append("{\"id\":").append(id)
+                    .append(",\"name_of_lobby\":\"lobby_").append(id).append('"')
+                    .append(",\"count_of_players\":").append(playerCount())
+                    .append(",\"player1\":").append(player1 == null ? "null" : "\"" + player1.username + "\"")
+                    .append(",\"player2\":").append(player2 == null ? "null" : "\"" + player2.username + "\"")
+                    .append(",\"starting_game\":").append(starting)
+                    .append('}');
+        }
+
+        private int playerCount() {
+            return (player1 == null ? 0 : 1) + (player2 == null ? 0 : 1);
+        }
+
+        private Connection opponentOf(Connection connection) {
+            return connection == player1 ? player2 : player1;
+        }
+
+        private void leave(Connection connection) {
+            if (player1 == connection) {
+                player1 = null;
+            } else if (player2 == connection) {
+                player2 = null;
+            }
+            if (playerCount() == 0) {
+                starting = false;
+                firstFinishTime = null;
+            }
+        }
+    }
+
+    /**
+     * Сеанс одного клиента. Пока сеанс не восстановлен, он же читает своё соединение;
+     * после RESUME чтение нового соединения передаёт сообщения прежнему сеансу
+     */
+    private final class Connection implements Runnable {
+        private final Socket socket;
+        private Socket attachedSocket;
+        private PrintWriter writer;
+        private String username;
+        private Lobby lobby;
+        private boolean ready;
+        private String token;
+        private long detachedNanos;
+
+        /**
+         * Сообщения клиента и сообщения клиенту без служебных PING, PONG, RESUME*
+         */
+        private long clientMessages;
+        private long serverMessages;
+        private final ArrayDeque<String> unacked = new ArrayDeque<>();
+
+        private Connection(Socket socket) {
+            this.socket = socket;
+            this.attachedSocket = socket;
+        }
+
+        @Override
+        public void run() {
+            sockets.add(socket);
+            Connection session = this;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                PrintWriter socketWriter = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                synchronized (this) {
+                    writer = socketWriter;
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    receivedCount.incrementAndGet();
+                    if (line.startsWith("RESUME/")) {
+                        Connection resumed = resume(line, socketWriter);
+                        if (resumed == null) {
+                            sendRaw("RESUME_ACK_FAIL");
+                            break;
+                        }
+                        session = resumed;
+                        continue;
+                    }
+                    if (!session.handle(line)) {
+                        session.forget();
+                        break;
+                    }
+                }
+            } catch (SocketException e) {
+                // Клиент закрыл соединение
+            } catch (IOException e) {
+                System.err.println("Ошибка соединения " + session.username + ": " + e.getMessage());
+            } finally {
+                sockets.remove(socket);
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // уже закрыт
+                }
+                session.detach(socket);
+            }
+        }
+
+        /**
+         * Передача сеанса новому соединению: ответ RESUME_ACK_SUCCESS/сколько_получено и досылка того,
+         * что клиент не получил
+         *
+         * @return null, если сеанс не найден или пропущенных сообщений уже нет в журнале
+         */
+        private Connection resume(String line, PrintWriter socketWriter) {
+            String[] fields = line.split("/");
+            Connection session = fields.length == 3 ? sessions.get(fields[1]) : null;
+            if (session == null) {
+                return null;
+            }
+            long clientReceived;
+            try {
+                clientReceived = Long.parseLong(fields[2]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+
+            synchronized (session) {
+                long firstUnacked = session.serverMessages - session.unacked.size() + 1;
+                if (clientReceived < firstUnacked - 1 || clientReceived > session.serverMessages) {
+                    return null;
+                }
+                session.writer = socketWriter;
+                session.attachedSocket = socket;
+                session.sendRaw("RESUME_ACK_SUCCESS/" + session.clientMessages);
+                long sequence = firstUnacked;
+                for (String message : session.unacked) {
+                    if (sequence++ > clientReceived) {
+                        session.sendRaw(message);
+                    }
+                }
+            }
+            return session;
+        }
+
+        /**
+         * Соединение сеанса закрыто: без токена клиент уходит сразу, с токеном - если не вернётся за отведённое время
+         */
+        private void detach(Socket closed) {
+            synchronized (this) {
+                if (closed != attachedSocket) {
+                    // Сеанс уже перешёл на новое соединение
+                    return;
+                }
+                attachedSocket = null;
+                detachedNanos = System.nanoTime();
+                if (token != null && running) {
+                    expiry.schedule(this::expire, RESUME_GRACE_SECONDS, TimeUnit.SECONDS);
+                    return;
+                }
+            }
+            leaveLobby();
+        }
+
+        private void expire() {
+            synchronized (this) {
+                boolean waitedLongEnough = System.nanoTime() - detachedNanos >= TimeUnit.SECONDS.toNanos(RESUME_GRACE_SECONDS);
+                if (attachedSocket != null || token == null || !waitedLongEnough) {
+                    // Сеанс восстановлен или оборвался ещё раз позже, тогда его закроет более поздняя задача
+                    return;
+                }
+            }
+            forget();
+            leaveLobby();
+        }
+
+        /**
+         * Сеанс завершён, восстановить его больше нельзя
+         */
+        private synchronized void forget() {
+            lobbySubscribers.remove(this);
+            if (token != null) {
+                sessions.remove(token);
+                token = null;
+            }
+        }
+
+        /**
+         * @return false, если соединение нужно закрыть
+         */
+        private boolean handle(String line) {
+            int separator = line.indexOf('/');
+            String command = separator < 0 ? line : line.substring(0, separator);
+            String argument = separator < 0 ? "" : line.substring(separator + 1);
+
+            if ("PING".equals(command)) {
+                sendRaw("PONG/" + argument);
+                return true;
+            }
+            synchronized (this) {
+                clientMessages++;
+            }
+
+            switch (command) {
+                case "CONNECT":
+                    send("CONNECT_ACK");
+                    break;
+                case "USER":
+                    username = argument;
+                    send(passwords.containsKey(username) ? "USER_ACK_CHECK" : "USER_ACK_CREATE");
+                    break;
+                case "PASS":
+                    String stored = passwords.putIfAbsent(username, argument);
+                    if (stored == null || stored.equals(argument)) {
+                        send("PASS_ACK_SUCCESS");
+                        issueToken();
+                    } else {
+                        send("PASS_ACK_FAIL");
+                    }
+                    break;
+                case "RETURN_FROM_PASSWORD":
+                    username = null;
+                    break;
+                case "LOBBY_SUBSCRIBE":
+                    lobbySubscribers.add(this);
+                    break;
+                case "LOBBY_UNSUBSCRIBE":
+                    lobbySubscribers.remove(this);
+                    break;
+                case "MULTIPLAY":
+                    send(lobbiesMessage());
+                    break;
+                case "JOIN_LOBBY_ID":
+                    join(argument);
+                    break;
+                case "EXIT_WAITING":
+                case "NOT_READY":
+                    leaveLobby();
+                    break;
+                case "READY":
+                    ready();
+                    break;
+                case "MOVE_LEFT":
+                case "MOVE_RIGHT":
+                    break;
+                case "FINISH":
+                    finish(argument);
+                    break;
+                case "MULTILPLAY_TOP_SCORES_LIST_BY_WINS":
+                    send(topScoresByWinsMessage());
+                    break;
+                case "MULTILPLAY_TOP_SCORES_LIST_BY_TIME":
+                    send("MULTILPLAY_TOP_SCORES_LIST_BY_TIME []");
+                    break;
+                case "DISCONNECT":
+                    leaveLobby();
+                    send("DISCONNECT_ACK");
+                    return false;
+                default:
+                    System.err.println("Неизвестная команда " + line);
+            }
+            return true;
+        }
+
+        private void join(String argument) {
+            int id;
+            try {
+                id = Integer.parseInt(argument);
+            } catch (NumberFormatException e) {
+                send("FULL_LOBBY_ERR");
+                return;
+            }
+            if (id < 0 || id >= lobbies.length) {
+                send("FULL_LOBBY_ERR");
+                return;
+            }
+
+            Lobby target = lobbies[id];
+            Connection opponent;
+            synchronized (target) {
+                if (target.starting) {
+                    send("LOBBY_START_GAME");
+                    return;
+                }
+                if (target.player1 != null && target.player2 != null) {
+                    send("FULL_LOBBY_ERR");
+                    return;
+                }
+                if (target.player1 == null) {
+                    target.player1 = this;
+                } else {
+                    target.player2 = this;
+                }
+                lobby = target;
+                ready = false;
+                opponent = target.opponentOf(this);
+                send("JOIN_LOBBY_ID_ACK_SUCCESS");
+                if (opponent != null) {
+                    opponent.send("PLAYER_JOINED/" + username);
+                    send("PLAYER_JOINED/" + opponent.username);
+                }
+            }
+            lobbyChanged(target);
+        }
+
+        private void ready() {
+            Lobby current = lobby;
+            if (current == null) {
+                return;
+            }
+            boolean started = false;
+            synchronized (current) {
+                ready = true;
+                Connection opponent = current.opponentOf(this);
+                if (opponent != null && opponent.ready) {
+                    current.starting = true;
+                    started = true;
+                    send(startMessage);
+                    opponent.send(startMessage);
+                }
+            }
+            if (started) {
+                lobbyChanged(current);
+            }
+        }
+
+        /**
+         * Первый доехавший сразу получает WIN без времени соперника, второй - сравнение времён
+         */
+        private void finish(String time) {
+            Lobby current = lobby;
+            if (current == null) {
+                return;
+            }
+            boolean released = false;
+            synchronized (current) {
+                if (current.firstFinishTime == null) {
+                    current.firstFinishTime = time;
+                    wins.merge(username, 1, Integer::sum);
+                    send("WIN/" + time + "/NO");
+                } else {
+                    String result = time.equals(current.firstFinishTime) ? "DRAW" : "LOSE";
+                    send(result + "/" + time + "/" + current.firstFinishTime);
+                    current.starting = false;
+                    current.firstFinishTime = null;
+                    current.player1 = null;
+                    current.player2 = null;
+                    released = true;
+                }
+            }
+            lobby = null;
+            ready = false;
+            if (released) {
+                lobbyChanged(current);
+            }
+        }
+
+        private void leaveLobby() {
+            Lobby current = lobby;
+            if (current == null) {
+                return;
+            }
+            synchronized (current) {
+                Connection opponent = current.opponentOf(this);
+                current.leave(this);
+                if (opponent != null && !current.starting) {
+                    opponent.ready = false;
+                    opponent.send("LEFT_JOINED");
+                }
+            }
+            lobby = null;
+            ready = false;
+            lobbyChanged(current);
+        }
+
+        private void issueToken() {
+            String issued = UUID.randomUUID().toString();
+            synchronized (this) {
+                token = issued;
+            }
+            sessions.put(issued, this);
+            sendRaw("RESUME_TOKEN/" + issued);
+        }
+
+        /**
+         * Отправка с запоминанием для досылки после восстановления
+         */
+        private void send(String message) {
+            synchronized (this) {
+                serverMessages++;
+                unacked.addLast(message);
+                if (unacked.size() > MAX_UNACKED) {
+                    unacked.pollFirst();
+                }
+            }
+            sendRaw(message);
+        }
+
+        /**
+         * Отправка в текущее соединение сеанса, если соединения нет - сообщение дойдёт досылкой
+         */
+        private void sendRaw(String message) {
+            if (responseDelayMillis > 0) {
+                try {
+                    Thread.sleep(responseDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized (this) {
+                if (attachedSocket == null) {
+                    return;
+                }
+                writer.print(message);
+                writer.print('\n');
+                writer.flush();
+            }
+            sentCount.incrementAndGet();
+        }
+    }
+}
@@ -5,7 +5,6 @@ import javafx.scene.Group;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
 
@@ -14,7 +13,7 @@ import javafx.stage.Stage;
  */
 public class CarGenerator extends Application {
 
-    private static final int CELL_SIZE = 50;
+    private static final int CELL_SIZE = CarSprites.CELL_SIZE;
 
     @Override
     public void start(Stage primaryStage) {
@@ -40,19 +39,7 @@ public class CarGenerator extends Application {
         // Очистка холста
         gc.clearRect(0, 0, CELL_SIZE, CELL_SIZE);
 
-        // Кузов машинки (прямоугольник)
-        gc.setFill(Color.BLUE);
-        gc.fillRect(10, 10, 30, 20);
-
-        // Окна машинки (два маленьких прямоугольника)
-        gc.setFill(Color.LIGHTBLUE);
-        gc.fillRect(15, 12, 8, 6); // Левое окно
-        gc.fillRect(27, 12, 8, 6); // Правое окно
-
-        // Колёса машинки (два круга)
-        gc.setFill(Color.BLACK);
-        gc.fillOval(12, 25, 8, 8); // Левое колесо
-        gc.fillOval(30, 25, 8, 8); // Правое колесо
+        gc.drawImage(CarSprites.get(CarStyle.PLAYER, 1.0), 0, 0);
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,69 @@
+package org.example.car;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Кэш растеризованных изображений машинки.
+ * Машинка рисуется примитивами один раз на каждую раскраску и масштаб, дальше используется готовое изображение.
+ * Все методы вызываются только из потока JavaFX: снимок холста делается в нём.
+ */
+public final class CarSprites {
+
+    /**
+     * Размер клетки, под которую нарисована машинка, в пикселях при масштабе 1
+     */
+    public static final int CELL_SIZE = 50;
+
+    private static final Map<CarStyle, Map<Double, Image>> SPRITES = new EnumMap<>(CarStyle.class);
+
+    private CarSprites() {
+    }
+
+    /**
+     * Изображение машинки размером CELL_SIZE * scale с прозрачным фоном
+     */
+    public static Image get(CarStyle style, double scale) {
+        return SPRITES.computeIfAbsent(style, s -> new HashMap<>())
+                .computeIfAbsent(scale, s -> rasterize(style, s));
+    }
+
+    /**
+     * Отрисовка машинки векторными примитивами в клетке CELL_SIZE x CELL_SIZE
+     */
+    public static void paint(GraphicsContext gc, CarStyle style) {
+        // Кузов машинки (прямоугольник)
+        gc.setFill(style.getBody());
+        gc.fillRect(10, 10, 30, 20);
+
+        // Окна машинки (два маленьких прямоугольника)
+        gc.setFill(style.getWindows());
+        gc.fillRect(15, 12, 8, 6); // Левое окно
+        gc.fillRect(27, 12, 8, 6); // Правое окно
+
+        // Колёса машинки (два круга)
+        gc.setFill(style.getWheels());
+        gc.fillOval(12, 25, 8, 8); // Левое колесо
+        gc.fillOval(30, 25, 8, 8); // Правое колесо
+    }
+
+    private static Image rasterize(CarStyle style, double scale) {
+        int size = (int) Math.ceil(CELL_SIZE * scale);
+        Canvas canvas = new Canvas(size, size);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.scale(scale, scale);
+        paint(gc, style);
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        return canvas.snapshot(parameters, new WritableImage(size, size));
+    }
+}
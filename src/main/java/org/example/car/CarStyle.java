@@ -0,0 +1,33 @@
+package org.example.car;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Раскраска машинки
+ */
+public enum CarStyle {
+    PLAYER(Color.BLUE, Color.LIGHTBLUE, Color.BLACK),
+    OPPONENT(Color.DARKORANGE, Color.LIGHTYELLOW, Color.BLACK);
+
+    private final Color body;
+    private final Color windows;
+    private final Color wheels;
+
+    CarStyle(Color body, Color windows, Color wheels) {
+        this.body = body;
+        this.windows = windows;
+        this.wheels = wheels;
+    }
+
+    public Color getBody() {
+        return body;
+    }
+
+    public Color getWindows() {
+        return windows;
+    }
+
+    public Color getWheels() {
+        return wheels;
+    }
+}
@@ -7,43 +7,74 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.util.StringConverter;
+import org.example.concurrent.ClientExecutors;
+import org.example.event.GameResultEvent;
+import org.example.event.GameStartEvent;
+import org.example.event.LobbiesEvent;
+import org.example.event.LobbyDeltaEvent;
+import org.example.event.PlayerJoinedEvent;
+import org.example.event.ServerCommand;
+import org.example.event.ServerEvent;
+import org.example.event.TopScoresEvent;
 import org.example.game.GameScreen;
-import org.example.jsonparser.JsonParser;
-import org.example.listener.ServerListener;
+import org.example.listener.InboundEventQueue;
+import org.example.metrics.ClientMetrics;
 import org.example.model.GameState;
+import org.example.lobby.LobbyCell;
+import org.example.lobby.LobbyListModel;
+import org.example.lobby.LobbyQuery;
 import org.example.model.Lobby;
 import org.example.model.TopScoresByTime;
 import org.example.model.TopScoresByWins;
+import org.example.session.GameSession;
+import org.example.session.PrewarmedSession;
+import org.example.session.SessionListener;
 import org.example.serverConfig.ServerConfig;
+import org.example.serverConfig.ServerEndpoint;
 import org.example.validator.PasswordValidator;
 import org.example.validator.UsernameValidator;
+import org.example.validator.ValidationResult;
 import org.example.validator.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.Socket;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 
 public class Client extends Application {
 
     /**
-     * Адрес сервера
+     * Серверы, из которых при подключении выбирается самый быстрый
      */
-    private static final String SERVER_ADDRESS = ServerConfig.SERVER_ADDRESS.getValue();
+    private static final List<ServerEndpoint> SERVERS = ServerConfig.endpoints();
 
     /**
-     * Порт сервера
+     * Через сколько секунд уведомление закрывается само
      */
-    private static final int SERVER_PORT = Integer.parseInt(ServerConfig.SERVER_PORT.getValue());
+    private static final long NOTIFICATION_SECONDS = 5;
+
+    /**
+     * Сколько секунд сервер ждёт подтверждения готовности
+     */
+    private static final int READY_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Подписка на изменения лобби: -Drally.lobby.subscribe=true для серверов с LOBBY_SUBSCRIBE.
+     * По умолчанию выключена, список обновляется кнопкой: сервер без подписки не знает этой команды
+     */
+    private static final boolean LOBBY_SUBSCRIBE_ENABLED = Boolean.parseBoolean(System.getProperty("rally.lobby.subscribe", "false"));
 
     /**
      * Логирование
@@ -71,9 +102,59 @@ public class Client extends Application {
     private VBox root;
 
     /**
-     * Объект, который слушает и отправляет сообщения серверу
+     * Сеанс с сервером
+     */
+    private volatile GameSession session;
+
+    /**
+     * Соединение, открытое в фоне до нажатия «Подключиться»
+     */
+    private PrewarmedSession prewarmed;
+
+    /**
+     * Когда пользователь нажал «Подключиться», для замера времени до экрана ввода имени
      */
-    private ServerListener serverListener;
+    private long connectRequestedNanos;
+
+    /**
+     * События сервера применяются в потоке JavaFX пачками
+     */
+    private final InboundEventQueue inboundQueue = new InboundEventQueue(InboundEventQueue.DEFAULT_CAPACITY,
+            InboundEventQueue.OverflowPolicy.DROP_SNAPSHOTS, Platform::runLater, this::applyServerEvent);
+
+    /**
+     * Подписка клиента на сеанс: события из сетевого потока переносятся в поток JavaFX
+     */
+    private final SessionListener sessionListener = new SessionListener() {
+        @Override
+        public void onEvent(ServerEvent event) {
+            try {
+                if (!inboundQueue.offer(event)) {
+                    logger.info("Событие {} отброшено: очередь входящих событий переполнена", event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void onConnectionLost() {
+            Platform.runLater(Client.this::handleServerError);
+        }
+
+        @Override
+        public void onReconnecting(int attempt, long delayMillis) {
+            logger.info("Связь с сервером потеряна, попытка переподключения {} через {} мс", attempt, delayMillis);
+            if (attempt == 1) {
+                Platform.runLater(() -> showConnectionNotice("Связь с сервером потеряна, переподключаемся...", Color.ORANGE));
+            }
+        }
+
+        @Override
+        public void onResumed() {
+            Platform.runLater(() -> showConnectionNotice("Связь с сервером восстановлена", Color.GREEN));
+        }
+    };
 
     private Scene primaryScene;
 
@@ -86,6 +167,23 @@ public class Client extends Application {
 
     private GameScreen gameScreen;
 
+    /**
+     * Список лобби, изменения от сервера применяются к нему на месте
+     */
+    private final LobbyListModel lobbyModel = new LobbyListModel();
+
+    /**
+     * Экран лобби создаётся один раз, ячейки списка переиспользуются
+     */
+    private ListView<Lobby> lobbyView;
+
+    private boolean lobbySubscribed;
+
+    /**
+     * Обратный отсчёт на экране подтверждения готовности, null - экран не показан
+     */
+    private ScheduledFuture<?> readyCountdown;
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -105,6 +203,25 @@ public class Client extends Application {
         logger.info("Приложение запущено.");
         this.primaryScene = scene;
         showStartWindow();
+        ClientMetrics.global().startPeriodicDump();
+    }
+
+    /**
+     * Выход из приложения (Platform.exit или закрытие окна): соединение закрывается, фоновые потоки останавливаются
+     */
+    @Override
+    public void stop() {
+        if (Objects.nonNull(gameScreen)) {
+            gameScreen.stop();
+        }
+        if (Objects.nonNull(session)) {
+            session.close();
+        }
+        if (Objects.nonNull(prewarmed)) {
+            prewarmed.release();
+        }
+        ClientExecutors.shutdown();
+        logger.info("Приложение остановлено.");
     }
 
     /**
@@ -112,7 +229,7 @@ public class Client extends Application {
      */
     private void showStartWindow() {
         if (Objects.nonNull(gameScreen)) {
-            gameScreen.isGameOver = true;
+            gameScreen.stop();
             primaryStage.setScene(primaryScene);
             this.gameScreen = null;
         }
@@ -128,10 +245,14 @@ public class Client extends Application {
         connectionButton.setOnAction(e -> connectToServer());
 
         root.getChildren().addAll(connectionButton, exit);
+
+        if (Objects.isNull(prewarmed) && PrewarmedSession.isEnabled()) {
+            prewarmed = PrewarmedSession.start(SERVERS);
+        }
     }
 
     /**
-     * Экран ожидания подключения к серверу ( ждём когда выполнится строчка socket = new Socket(...) )
+     * Экран ожидания подключения к серверу ( ждём, пока GameSession.connect установит соединение )
      */
     private void showConnectWindow() {
         logger.info("Началась отрисовка экрана ожидания подключения");
@@ -146,113 +267,141 @@ public class Client extends Application {
      */
     private void connectToServer() {
         showConnectWindow();
+        connectRequestedNanos = System.nanoTime();
+        PrewarmedSession warm = prewarmed;
+        prewarmed = null;
 
-        new Thread(() -> {
+        ClientExecutors.io().execute(() -> {
             try {
-                logger.info("Ожидается подключение к серверу");
-                Socket socket = new Socket(SERVER_ADDRESS, SERVER_PORT);
-                serverListener = new ServerListener(socket, this);
+                Optional<GameSession> warmSession = Objects.isNull(warm) ? Optional.empty() : warm.claim(sessionListener);
+                if (warmSession.isPresent()) {
+                    logger.info("Используется соединение, открытое заранее");
+                    session = warmSession.get();
+                    return;
+                }
 
-                new Thread(serverListener).start();
-                serverListener.sendMessage("CONNECT");
+                logger.info("Ожидается подключение к серверу");
+                session = GameSession.connect(SERVERS, sessionListener);
             } catch (IOException e) {
                 Platform.runLater(this::showStartWindow);
                 logger.info("Произошла ошибка при подключении к серверу");
             }
-        }).start();
+        });
 
     }
 
     /**
-     * Обработчик сообщений от сервера
-     *
-     * @param response сообщение от сервера
-     */
-    public void handleServerResponse(String response) {
-        if ("CONNECT_ACK".equals(response)) {
-            startAuthentication();
-        } else if ("USER_ACK_CREATE".equals(response)) {
-            showPasswordWindow("Вы создаёте новый аккаунт. Придумайте пароль.", true);
-        } else if ("USER_ACK_CHECK".equals(response)) {
-            showPasswordWindow("Аккаунт с таким никнеймом уже существует. Подтвердите пароль: ", false);
-        } else if ("PASS_ACK_FAIL".equals(response)) {
-            showPasswordWindow("Неверный пароль. Попробуйте снова: ", false);
-        } else if ("PASS_ACK_SUCCESS".equals(response)) {
-            showGameMenu();
-        } else if (response.startsWith("MULTIPLAY_ACK_SUCCESS")) {
-            String json = response.substring(22);
-            Optional<List<Lobby>> optionalLobbies = JsonParser.parseLobbies(json);
+     * Применение события с замером времени перестройки экрана
+     */
+    private void applyServerEvent(ServerEvent event) {
+        long start = System.nanoTime();
+        handleServerEvent(event);
+        ClientMetrics.global().recordApply(event.getCommand(), System.nanoTime() - start);
+    }
 
-            if (optionalLobbies.isPresent()) {
-                logger.info("Лобби успешно распарсились");
-                showLobbies(optionalLobbies.get());
-            } else {
+    /**
+     * Обработчик событий от сервера. Сообщение уже разобрано в сетевом потоке,
+     * здесь только применяется готовый результат
+     *
+     * @param event событие от сервера
+     */
+    @SuppressWarnings("unchecked")
+    public void handleServerEvent(ServerEvent event) {
+        switch (event.getCommand()) {
+            case CONNECT_ACK:
+                if (connectRequestedNanos != 0) {
+                    ClientMetrics.global().histogram("ui.connect").record(System.nanoTime() - connectRequestedNanos);
+                    connectRequestedNanos = 0;
+                }
+                startAuthentication();
+                break;
+            case USER_ACK_CREATE:
+                showPasswordWindow("Вы создаёте новый аккаунт. Придумайте пароль.", true);
+                break;
+            case USER_ACK_CHECK:
+                showPasswordWindow("Аккаунт с таким никнеймом уже существует. Подтвердите пароль: ", false);
+                break;
+            case PASS_ACK_FAIL:
+                showPasswordWindow("Неверный пароль. Попробуйте снова: ", false);
+                break;
+            case PASS_ACK_SUCCESS:
+            case MULTIPLAY_ACK_FAIL:
                 showGameMenu();
-            }
-        } else if ("MULTIPLAY_ACK_FAIL".equals(response)) {
-            showGameMenu();
-        } else if ("LOBBY_START_GAME".equals(response)) {
-            showNotification("Игра в лобби уже идёт!", Color.RED);
-        } else if ("FULL_LOBBY_ERR".equals(response)) {
-            showNotification("Лобби переполнено", Color.RED);
-        } else if ("JOIN_LOBBY_ID_ACK_SUCCESS".equals(response)) {
-            showWaitingConnectPersonInLobby();
-        } else if (response.startsWith("PLAYER_JOINED")) {
-            String[] parts = response.split("/");
-            this.nameOfOpponent = parts[1];
-
-            showReadyForStartStage();
-        } else if ("LEFT_JOINED".equals(response)) {
-            showNotification("Игрок " + this.nameOfOpponent + " не подтвердил готовность к игре", Color.RED);
-            this.nameOfOpponent = null;
-            showWaitingConnectPersonInLobby();
-        } else if ("AFK_TIMEOUT".equals(response)) {
-            this.nameOfOpponent = null;
-            showNotification("Вы не подтвердили готовность к игре в течении 30 секунд", Color.RED);
-            serverListener.sendMessage("MULTIPLAY");
-        } else if (response.startsWith("START")) {
-            String json = response.substring(6);
-
-            Optional<GameState> gameState = JsonParser.parseGameState(json);
-
-            if (gameState.isPresent()) {
-                logger.info("Стартовое состояние игры успешно распарсилось");
-
-                int[][] gameField = gameState.get().getGameField();
-
-                GameScreen gameScreen = new GameScreen(gameField, serverListener);
-                this.gameScreen = gameScreen;
-                Platform.runLater(() -> primaryStage.setScene(gameScreen.getScene()));
-
-
-            }
-        } else if (response.startsWith("WIN") || response.startsWith("LOSE") || response.startsWith("DRAW")) {
-            primaryStage.setScene(primaryScene);
-            String[] parts = response.split("/");
-            showEndGame(parts);
-        } else if (response.startsWith("MULTILPLAY_TOP_SCORES_LIST_BY_WINS")) {
-            String json = response.substring(35);
-
-            Optional<List<TopScoresByWins>> optionalTopScoresByWins = JsonParser.parseTopScoresByWins(json);
-
-            if (optionalTopScoresByWins.isPresent()) {
-                List<TopScoresByWins> topScoresByWins = optionalTopScoresByWins.get();
+                break;
+            case MULTIPLAY_ACK_SUCCESS:
+                showLobbies(((LobbiesEvent) event).getLobbies());
+                break;
+            case LOBBY_ADDED:
+            case LOBBY_CHANGED:
+                lobbyModel.putAll(((LobbyDeltaEvent) event).getLobbies());
+                break;
+            case LOBBY_REMOVED:
+                lobbyModel.remove(((LobbyDeltaEvent) event).getRemovedIds());
+                break;
+            case LOBBY_START_GAME:
+                showNotification("Игра в лобби уже идёт!", Color.RED);
+                break;
+            case FULL_LOBBY_ERR:
+                showNotification("Лобби переполнено", Color.RED);
+                break;
+            case JOIN_LOBBY_ID_ACK_SUCCESS:
+                leaveLobbyScreen();
+                showWaitingConnectPersonInLobby();
+                break;
+            case PLAYER_JOINED:
+                this.nameOfOpponent = ((PlayerJoinedEvent) event).getOpponentName();
+                showReadyForStartStage();
+                break;
+            case LEFT_JOINED:
+                handleLeftJoined();
+                break;
+            case AFK_TIMEOUT:
+                handleAfkTimeout();
+                break;
+            case START:
+                handleStart(((GameStartEvent) event).getGameState());
+                break;
+            case WIN:
+            case LOSE:
+            case DRAW:
+                primaryStage.setScene(primaryScene);
+                showEndGame((GameResultEvent) event);
+                break;
+            case MULTILPLAY_TOP_SCORES_LIST_BY_WINS:
+                showTopScoresByWins(((TopScoresEvent<TopScoresByWins>) event).getScores());
+                break;
+            case MULTILPLAY_TOP_SCORES_LIST_BY_TIME:
+                showTopScoreByTime(((TopScoresEvent<TopScoresByTime>) event).getScores());
+                break;
+            case DISCONNECT_ACK:
+                showStartWindow();
+                break;
+            default:
+                logger.info("Нет обработчика для события {}", event);
+        }
+    }
 
-                showTopScoresByWins(topScoresByWins);
-            }
-        } else if (response.startsWith("MULTILPLAY_TOP_SCORES_LIST_BY_TIME")) {
-            String json = response.substring(35);
+    private void handleLeftJoined() {
+        cancelReadyCountdown();
+        showNotification("Игрок " + this.nameOfOpponent + " не подтвердил готовность к игре", Color.RED);
+        this.nameOfOpponent = null;
+        showWaitingConnectPersonInLobby();
+    }
 
-            Optional<List<TopScoresByTime>> optionalTopScoresByTimes = JsonParser.parseTopScoresByTime(json);
+    private void handleAfkTimeout() {
+        cancelReadyCountdown();
+        this.nameOfOpponent = null;
+        showNotification("Вы не подтвердили готовность к игре в течении 30 секунд", Color.RED);
+        session.requestLobbies();
+    }
 
-            if (optionalTopScoresByTimes.isPresent()) {
-                List<TopScoresByTime> topScoresByTimes = optionalTopScoresByTimes.get();
+    private void handleStart(GameState gameState) {
+        logger.info("Стартовое состояние игры успешно распарсилось");
+        cancelReadyCountdown();
 
-                showTopScoreByTime(topScoresByTimes);
-            }
-        } else if (response.equals("DISCONNECT_ACK")) {
-            showStartWindow();
-        }
+        GameScreen gameScreen = new GameScreen(gameState.getTrack(), session, inboundQueue);
+        this.gameScreen = gameScreen;
+        primaryStage.setScene(gameScreen.getScene());
     }
 
     private void showTopScoreByTime(List<TopScoresByTime> topScoresByTimes) {
@@ -292,36 +441,36 @@ public class Client extends Application {
     /**
      * Окно с результатом игры
      */
-    private void showEndGame(String[] parts) {
+    private void showEndGame(GameResultEvent result) {
         logger.info("Отрисовка конца игры");
         root.getChildren().clear();
 
         String resultOfGame;
-        if (parts[0].equals("WIN")) {
+        if (result.getCommand() == ServerCommand.WIN) {
             resultOfGame = "Вы победили.";
-        } else if (parts[0].equals("LOSE")) {
+        } else if (result.getCommand() == ServerCommand.LOSE) {
             resultOfGame = "Вы проиграли.";
         } else {
             resultOfGame = "Ничья.";
         }
 
         Label resultLabel = new Label(resultOfGame);
-        Label yourTime = new Label("Ваше время: " + parts[1]);
+        Label yourTimeLabel = new Label("Ваше время: " + result.getYourTime());
 
         String timeOfOpponent;
-        if (parts[2].equals("NO")) {
+        if (!result.isOpponentFinished()) {
             timeOfOpponent = "Оппонент " + nameOfOpponent + " ещё не проехал трассу.";
         } else {
-            timeOfOpponent = "Время " + nameOfOpponent + " " + parts[2];
+            timeOfOpponent = "Время " + nameOfOpponent + " " + result.getOpponentTime();
         }
         Label timeOfOpponentLabel = new Label(timeOfOpponent);
         nameOfOpponent = null;
 
         Button backToLobby = new Button("Вернуться в список лобби");
 
-        backToLobby.setOnAction(e -> serverListener.sendMessage("MULTIPLAY"));
+        backToLobby.setOnAction(e -> session.requestLobbies());
 
-        root.getChildren().addAll(resultLabel, yourTime, timeOfOpponentLabel, backToLobby);
+        root.getChildren().addAll(resultLabel, yourTimeLabel, timeOfOpponentLabel, backToLobby);
     }
 
     /**
@@ -349,12 +498,13 @@ public class Client extends Application {
             String userName = usernameField.getText();
 
             // валидация имени пользователя
-            if (usernameValidator.validate(userName)) {
+            ValidationResult result = usernameValidator.check(userName);
+            if (result.isValid()) {
                 username = userName;
-                serverListener.sendMessage("USER/" + userName);
+                session.sendUsername(userName);
             } else {
-                // вывод в графике подсказки с требованиями к userName
-                errorLabel.setText("Имя пользователя должно содержать от 5 до 20 символов, среди которых обязательно должны быть:\n - заглавная или строчная буква\n - цифра\nРазрешены только буквы латинского алфавита.");
+                // вывод в графике нарушенного правила и требований к userName
+                errorLabel.setText(result.getHint() + "\n\nИмя пользователя должно содержать от 5 до 20 символов, среди которых обязательно должны быть:\n - заглавная или строчная буква\n - цифра\nРазрешены только буквы латинского алфавита, цифры и спецсимволы.");
             }
 
         });
@@ -385,11 +535,12 @@ public class Client extends Application {
             String password = passwordField.getText();
 
             // валидация пароля (только если аккаунт создаётся впервые)
-            if ((isNewUser & passwordValidator.validate(password) || !(isNewUser))) {
-                serverListener.sendMessage("PASS/" + password);
-            } else if (errorLabel.getText().isEmpty()) {
-                // Вывод в графике подсказки с требованиями к паролю пользователя
-                errorLabel.setText("Пароль должен содержать от 5 до 20 символов, среди которых обязательно должны быть:\n - заглавная и строчная буква\n - цифра\n - спецсимвол\nРазрешены только буквы латинского алфавита.");
+            ValidationResult result = isNewUser ? passwordValidator.check(password) : ValidationResult.VALID;
+            if (result.isValid()) {
+                session.sendPassword(password);
+            } else {
+                // Вывод в графике нарушенного правила и требований к паролю пользователя
+                errorLabel.setText(result.getHint() + "\n\nПароль должен содержать не менее 5 символов, среди которых обязательно должны быть:\n - заглавная и строчная буква\n - цифра\n - спецсимвол\nРазрешены только буквы латинского алфавита, цифры и спецсимволы.");
             }
 
         });
@@ -397,7 +548,7 @@ public class Client extends Application {
         Button returnButton = new Button("Назад");
         returnButton.setOnAction(e -> {
             resetUsername();
-            serverListener.sendMessage("RETURN_FROM_PASSWORD");
+            session.returnFromPassword();
             showUsernameWindow();
         });
 
@@ -419,17 +570,17 @@ public class Client extends Application {
         }
 
         Button playOnline = new Button("Online режим");
-        playOnline.setOnAction(e -> serverListener.sendMessage("MULTIPLAY"));
+        playOnline.setOnAction(e -> session.requestLobbies());
 
         Button viewOnlineTopListWins = new Button("Посмотреть топ игроков online по количеству побед");
-        viewOnlineTopListWins.setOnAction(e -> serverListener.sendMessage("MULTILPLAY_TOP_SCORES_LIST_BY_WINS"));
+        viewOnlineTopListWins.setOnAction(e -> session.requestTopScoresByWins());
 
         Button viewOnlineTopListTime = new Button("Посмотреть топ игроков online по лучшему времени");
-        viewOnlineTopListTime.setOnAction(e -> serverListener.sendMessage("MULTILPLAY_TOP_SCORES_LIST_BY_TIME"));
+        viewOnlineTopListTime.setOnAction(e -> session.requestTopScoresByTime());
 
         Button exit = new Button("Выход из игры");
         exit.setOnAction(e -> {
-            serverListener.sendMessage("DISCONNECT");
+            session.disconnect();
             showStartWindow();
         });
 
@@ -446,81 +597,120 @@ public class Client extends Application {
     }
 
     /**
-     * Экран со всеми лобби
+     * Экран со всеми лобби. Если он уже открыт, новый список применяется к нему на месте
      */
     private void showLobbies(List<Lobby> lobbies) {
+        lobbyModel.applySnapshot(lobbies);
+        if (Objects.nonNull(lobbyView) && root.getChildren().contains(lobbyView)) {
+            return;
+        }
+
         root.getChildren().clear();
         logger.info("Началась отрисовка экрана с лобби");
 
         Label titleLabel = new Label("Доступные лобби: ");
         Button refreshButton = new Button("Обновить");
         Button back = new Button("Назад");
-        back.setOnAction(e -> showGameMenu());
-        refreshButton.setOnAction(e -> serverListener.sendMessage("MULTIPLAY"));
-        root.getChildren().addAll(titleLabel, refreshButton, back);
+        back.setOnAction(e -> {
+            leaveLobbyScreen();
+            showGameMenu();
+        });
+        refreshButton.setOnAction(e -> session.requestLobbies());
 
+        Button quickJoin = new Button("Быстрая игра");
+        quickJoin.setOnAction(e -> quickJoin());
 
-        for (Lobby lobby : lobbies) {
-            HBox lobbyBox = createLobbyButton(lobby);
-            root.getChildren().add(lobbyBox);
-        }
+        root.getChildren().addAll(titleLabel, refreshButton, back, quickJoin, createLobbyFilter(), getLobbyView());
 
+        if (LOBBY_SUBSCRIBE_ENABLED && !lobbySubscribed) {
+            session.subscribeLobbies();
+            lobbySubscribed = true;
+        }
     }
 
-
     /**
-     * Создания кнопок для участия в игре в лобби
+     * Поиск по названию лобби и имени игрока, фильтр свободных мест и порядок списка.
+     * Каждое изменение - запрос к индексу лобби, список не запрашивается у сервера заново
      */
-    private HBox createLobbyButton(Lobby lobby) {
-        logger.info("Началась отрисовка лобби с id = " + lobby.getId());
-        HBox lobbyBox = new HBox(10);
-        lobbyBox.setAlignment(Pos.CENTER_LEFT);
-        lobbyBox.setPadding(new Insets(10));
+    private HBox createLobbyFilter() {
+        TextField search = new TextField();
+        search.setPromptText("Название лобби или имя игрока");
+        CheckBox onlyFree = new CheckBox("Только со свободными местами");
+        ChoiceBox<LobbyQuery.Order> order = new ChoiceBox<>();
+        order.getItems().addAll(LobbyQuery.Order.values());
+        order.setValue(LobbyQuery.Order.ARRIVAL);
+        order.setConverter(new StringConverter<LobbyQuery.Order>() {
+            @Override
+            public String toString(LobbyQuery.Order value) {
+                if (Objects.isNull(value)) {
+                    return "";
+                }
+                switch (value) {
+                    case NAME:
+                        return "По названию";
+                    case MOST_PLAYERS:
+                        return "Сначала с соперником";
+                    default:
+                        return "По порядку";
+                }
+            }
 
-        Label iconLabel = new Label("\uD83C\uDFAE");
+            @Override
+            public LobbyQuery.Order fromString(String string) {
+                return null;
+            }
+        });
 
-        VBox infoBox = new VBox(5);
-        Label nameLabel = new Label("Название лобби: " + lobby.getNameOfLobby());
-        Label playersLabel = new Label("Количество игроков: " + lobby.getCountOfPlayersInLobby() + "/2");
-        Optional<String> nameOfPlayers = parseNameOfPlayers(lobby);
-        if (nameOfPlayers.isPresent()) {
-            Label nameOfPlayersLabel = new Label(nameOfPlayers.get());
-            infoBox.getChildren().add(nameOfPlayersLabel);
-        }
-        Label startGame;
-        if (lobby.isStartingGame()) {
-            startGame = new Label("Игра идёт");
+        Runnable applyFilter = () -> lobbyModel.setQuery(LobbyQuery.builder()
+                .text(search.getText())
+                .minFreeSlots(onlyFree.isSelected() ? 1 : 0)
+                .startingGame(onlyFree.isSelected() ? Boolean.FALSE : null)
+                .order(order.getValue())
+                .build());
+        search.textProperty().addListener((observable, oldValue, newValue) -> applyFilter.run());
+        onlyFree.selectedProperty().addListener((observable, oldValue, newValue) -> applyFilter.run());
+        order.valueProperty().addListener((observable, oldValue, newValue) -> applyFilter.run());
+        // Новый экран начинается без фильтра
+        lobbyModel.setQuery(LobbyQuery.ALL);
+
+        HBox.setHgrow(search, Priority.ALWAYS);
+        HBox filter = new HBox(10, search, onlyFree, order);
+        filter.setAlignment(Pos.CENTER_LEFT);
+        return filter;
+    }
+
+    /**
+     * Вход в лобби, где уже ждёт соперник, иначе в пустое
+     */
+    private void quickJoin() {
+        Optional<Lobby> lobby = lobbyModel.getIndex().quickJoin();
+        if (lobby.isPresent()) {
+            logger.info("Быстрая игра: выбрано лобби {}", lobby.get().getId());
+            session.joinLobby(lobby.get().getId());
         } else {
-            startGame = new Label("Игра не началась");
+            showNotification("Нет лобби со свободными местами", Color.ORANGE);
         }
-        infoBox.getChildren().addAll(nameLabel, playersLabel, startGame);
-
-        Button selectButton = new Button("Выбрать");
-
-        selectButton.setOnAction(e -> {
-            serverListener.sendMessage("JOIN_LOBBY_ID/" + lobby.getId());
-        });
-
-        lobbyBox.getChildren().addAll(iconLabel, infoBox, selectButton);
+    }
 
-        return lobbyBox;
+    /**
+     * Список лобби: ListView создаёт ячейки только для видимых строк
+     */
+    private ListView<Lobby> getLobbyView() {
+        if (Objects.isNull(lobbyView)) {
+            lobbyView = new ListView<>(lobbyModel.getItems());
+            lobbyView.setCellFactory(view -> new LobbyCell(id -> session.joinLobby(id)));
+            VBox.setVgrow(lobbyView, Priority.ALWAYS);
+        }
+        return lobbyView;
     }
 
     /**
-     * Правильный парсинг имён игроков в лобби
+     * Уход с экрана лобби: изменения списка больше не нужны
      */
-    private Optional<String> parseNameOfPlayers(Lobby lobby) {
-        if (Objects.isNull(lobby.getPlayer1()) && Objects.isNull(lobby.getPlayer2())) {
-            return Optional.empty();
-        } else if (Objects.isNull(lobby.getPlayer1())) {
-            String players = "Игроки: " + lobby.getPlayer2();
-            return Optional.of(players);
-        } else if (Objects.isNull(lobby.getPlayer2())) {
-            String players = "Игроки: " + lobby.getPlayer1();
-            return Optional.of(players);
-        } else {
-            String players = "Игроки: " + lobby.getPlayer1() + ", " + lobby.getPlayer2();
-            return Optional.of(players);
+    private void leaveLobbyScreen() {
+        if (lobbySubscribed) {
+            session.unsubscribeLobbies();
+            lobbySubscribed = false;
         }
     }
 
@@ -528,7 +718,7 @@ public class Client extends Application {
      * Метод для отображения уведомлений
      */
     private void showNotification(String message, Color color) {
-        logger.info("Отображение уведомления с сообщением " + message);
+        logger.info("Отображение уведомления с сообщением {}", message);
 
         Stage notificationStage = new Stage();
         notificationStage.initStyle(StageStyle.TRANSPARENT);
@@ -540,8 +730,16 @@ public class Client extends Application {
         label.setTextFill(color);
 
 
+        // Закрываем уведомление через 5 секунд, если пользователь не нажал "OK"
+        ScheduledFuture<?> autoClose = ClientExecutors.scheduler().schedule(
+                () -> Platform.runLater(notificationStage::close), NOTIFICATION_SECONDS, TimeUnit.SECONDS);
+
         Button okButton = new Button("OK");
-        okButton.setOnAction(event -> notificationStage.close()); // Закрываем окно при нажатии
+        okButton.setOnAction(event -> {
+            // Закрываем окно при нажатии, таймер больше не нужен
+            autoClose.cancel(false);
+            notificationStage.close();
+        });
 
 
         VBox vbox = new VBox(10, label, okButton);
@@ -555,16 +753,15 @@ public class Client extends Application {
 
 
         notificationStage.show();
+    }
 
-        // Закрываем уведомление через 5 секунд, если пользователь не нажал "OK"
-        new Thread(() -> {
-            try {
-                Thread.sleep(5000);
-                Platform.runLater(notificationStage::close);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }).start();
+    /**
+     * Уведомление о переподключении. Во время заезда модальное окно перехватило бы управление, поэтому там только журнал
+     */
+    private void showConnectionNotice(String message, Color color) {
+        if (Objects.isNull(gameScreen)) {
+            showNotification(message, color);
+        }
     }
 
     /**
@@ -577,8 +774,8 @@ public class Client extends Application {
         Label messageLabel = new Label("Ожидание подключения игрока...");
         Button backButton = new Button("Назад");
         backButton.setOnAction(e -> {
-            serverListener.sendMessage("EXIT_WAITING");
-            serverListener.sendMessage("MULTIPLAY");
+            session.exitWaiting();
+            session.requestLobbies();
         });
 
         ProgressIndicator progressIndicator = new ProgressIndicator();
@@ -598,21 +795,45 @@ public class Client extends Application {
         opponentLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #333333;");
 
 
-        Button readyButton = new Button("Готов играть (нужно подтвердить готовность в течении 30 секунд.");
+        Button readyButton = new Button("Готов играть (нужно подтвердить готовность в течении " + READY_TIMEOUT_SECONDS + " секунд.");
         Button backButton = new Button("Не готов (вернуться назад в список лобби)");
         backButton.setOnAction(e -> {
-            serverListener.sendMessage("NOT_READY");
-            serverListener.sendMessage("MULTIPLAY");
+            cancelReadyCountdown();
+            session.notReady();
+            session.requestLobbies();
         });
 
         readyButton.setStyle("-fx-font-size: 14px; -fx-background-color: #0078d7; -fx-text-fill: white;");
 
         readyButton.setOnAction(e -> {
-            serverListener.sendMessage("READY");
+            cancelReadyCountdown();
+            session.ready();
             showWaitingForReadyOpponent();
         });
 
-        root.getChildren().addAll(opponentLabel, readyButton, backButton);
+        Label countdownLabel = new Label();
+        root.getChildren().addAll(opponentLabel, countdownLabel, readyButton, backButton);
+        startReadyCountdown(countdownLabel);
+    }
+
+    /**
+     * Обратный отсчёт до AFK_TIMEOUT. Отменяется при уходе с экрана подтверждения готовности:
+     * экран игры не очищает root, и метка осталась бы на месте
+     */
+    private void startReadyCountdown(Label countdownLabel) {
+        cancelReadyCountdown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(READY_TIMEOUT_SECONDS);
+        readyCountdown = ClientExecutors.scheduler().scheduleAtFixedRate(() -> Platform.runLater(() -> {
+            long secondsLeft = Math.max(0, TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime() + 999_999_999L));
+            countdownLabel.setText("Осталось секунд: " + secondsLeft);
+        }), 0, 1, TimeUnit.SECONDS);
+    }
+
+    private void cancelReadyCountdown() {
+        if (Objects.nonNull(readyCountdown)) {
+            readyCountdown.cancel(false);
+            readyCountdown = null;
+        }
     }
 
 
@@ -633,10 +854,14 @@ public class Client extends Application {
     }
 
     /**
-     * Обработка ошибки при работе сервера
+     * Обработка ошибки при работе сервера, когда сеанс восстановить не удалось
      */
     public void handleServerError() {
         showNotification("Произошла ошибка при работе сервера", Color.RED);
+        cancelReadyCountdown();
+        // Подписка жила вместе с соединением
+        lobbySubscribed = false;
+        lobbyModel.clear();
         if (Objects.nonNull(nameOfOpponent)) {
             nameOfOpponent = null;
         }
@@ -0,0 +1,101 @@
+package org.example.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Все фоновые потоки клиента.
+ * Таймеры (закрытие уведомлений, обратный отсчёт, heartbeat) выполняются одним планировщиком,
+ * шаги симуляции заезда - в своём планировщике, чтобы таймеры не сдвигали шаги,
+ * блокирующий ввод-вывод - в виртуальных потоках, если JVM их поддерживает, иначе в пуле обычных потоков.
+ */
+public final class ClientExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientExecutors.class);
+
+    private ClientExecutors() {
+    }
+
+    /**
+     * Планировщик таймеров. Задачи должны быть короткими: всё, что меняет интерфейс, уходит в Platform.runLater
+     */
+    public static ScheduledExecutorService scheduler() {
+        return Holder.SCHEDULER;
+    }
+
+    /**
+     * Планировщик шагов симуляции заезда, в его потоке не выполняется ничего другого
+     */
+    public static ScheduledExecutorService simulation() {
+        return Holder.SIMULATION;
+    }
+
+    /**
+     * Исполнитель блокирующих задач: подключение к серверу, чтение сокета, запись исходящей очереди
+     */
+    public static ExecutorService io() {
+        return Holder.IO;
+    }
+
+    /**
+     * Остановка всех фоновых потоков, вызывается при выходе из приложения
+     */
+    public static void shutdown() {
+        Holder.SCHEDULER.shutdownNow();
+        Holder.SIMULATION.shutdownNow();
+        Holder.IO.shutdownNow();
+        try {
+            if (!Holder.IO.awaitTermination(1, TimeUnit.SECONDS)) {
+                logger.info("Потоки ввода-вывода не завершились за секунду");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ScheduledExecutorService createScheduler(String threadName) {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads(threadName));
+        // Отменённые таймеры уведомлений не копятся в очереди до своего срока
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() через рефлексию: исходники собираются под Java 8
+     */
+    private static ExecutorService createIo() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            logger.info("Ввод-вывод выполняется в виртуальных потоках");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            logger.info("Виртуальные потоки недоступны, ввод-вывод выполняется в пуле потоков");
+            return Executors.newCachedThreadPool(daemonThreads("client-io"));
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Holder {
+        private static final ScheduledExecutorService SCHEDULER = createScheduler("client-timer");
+        private static final ScheduledExecutorService SIMULATION = createScheduler("race-simulation");
+        private static final ExecutorService IO = createIo();
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.dispatcher;
+
+/**
+ * Префиксное дерево по имени команды протокола.
+ * Поиск идёт по символам сообщения без выделения памяти под подстроку с командой.
+ */
+public final class CommandTrie<T> {
+
+    /**
+     * Алфавит команд: заглавные латинские буквы и символ подчёркивания
+     */
+    private static final int ALPHABET_SIZE = 27;
+
+    private final Node<T> root = new Node<>();
+
+    /**
+     * Регистрация значения для команды
+     *
+     * @param command имя команды, например {@code MULTIPLAY_ACK_SUCCESS}
+     * @param value   значение, связанное с командой
+     */
+    public void put(String command, T value) {
+        Node<T> node = root;
+        for (int i = 0; i < command.length(); i++) {
+            int index = indexOf(command.charAt(i));
+            if (index < 0) {
+                throw new IllegalArgumentException("Недопустимый символ в команде " + command);
+            }
+            if (node.children[index] == null) {
+                node.children[index] = new Node<>();
+            }
+            node = node.children[index];
+        }
+        node.value = value;
+    }
+
+    /**
+     * Поиск значения по команде, занимающей символы [0, tokenEnd) сообщения
+     *
+     * @return значение или null, если команда не зарегистрирована
+     */
+    public T get(CharSequence message, int tokenEnd) {
+        Node<T> node = root;
+        for (int i = 0; i < tokenEnd; i++) {
+            node = node.children[indexOf(message.charAt(i))];
+            if (node == null) {
+                return null;
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * Позиция первого символа после имени команды
+     */
+    public static int tokenEnd(CharSequence message) {
+        int i = 0;
+        while (i < message.length() && indexOf(message.charAt(i)) >= 0) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int indexOf(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        return c == '_' ? ALPHABET_SIZE - 1 : -1;
+    }
+
+    private static final class Node<T> {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final Node<T>[] children = new Node[ALPHABET_SIZE];
+        private T value;
+    }
+}
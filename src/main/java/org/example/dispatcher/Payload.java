@@ -0,0 +1,95 @@
+package org.example.dispatcher;
+
+import java.io.Reader;
+
+/**
+ * Полезная нагрузка сообщения сервера: окно (offset, length) над исходной строкой без её копирования
+ */
+public final class Payload implements CharSequence {
+
+    private static final char FIELD_SEPARATOR = '/';
+
+    private final String source;
+    private final int offset;
+    private final int length;
+
+    public Payload(String source, int offset, int length) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return source.charAt(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new Payload(source, offset + start, end - start);
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Поле полезной нагрузки, разделённой символом '/'
+     *
+     * @param index номер поля, начиная с нуля
+     * @return значение поля или null, если полей меньше
+     */
+    public String field(int index) {
+        int end = offset + length;
+        int start = offset;
+        for (int i = 0; i < index; i++) {
+            int separator = source.indexOf(FIELD_SEPARATOR, start);
+            if (separator < 0 || separator >= end) {
+                return null;
+            }
+            start = separator + 1;
+        }
+        int separator = source.indexOf(FIELD_SEPARATOR, start);
+        if (separator < 0 || separator > end) {
+            separator = end;
+        }
+        return source.substring(start, separator);
+    }
+
+    /**
+     * Чтение полезной нагрузки потоком, например для передачи в Jackson
+     */
+    public Reader reader() {
+        return new PayloadReader();
+    }
+
+    @Override
+    public String toString() {
+        return source.substring(offset, offset + length);
+    }
+
+    private final class PayloadReader extends Reader {
+        private int position;
+
+        @Override
+        public int read(char[] buffer, int off, int len) {
+            if (position >= length) {
+                return -1;
+            }
+            int count = Math.min(len, length - position);
+            source.getChars(offset + position, offset + position + count, buffer, off);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+            position = length;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.event;
+
+/**
+ * Результат гонки: WIN, LOSE или DRAW
+ */
+public class GameResultEvent extends ServerEvent {
+    private final String yourTime;
+
+    /**
+     * Время соперника или NO, если он ещё не доехал
+     */
+    private final String opponentTime;
+
+    public GameResultEvent(ServerCommand result, String yourTime, String opponentTime) {
+        super(result);
+        this.yourTime = yourTime;
+        this.opponentTime = opponentTime;
+    }
+
+    public String getYourTime() {
+        return yourTime;
+    }
+
+    public String getOpponentTime() {
+        return opponentTime;
+    }
+
+    public boolean isOpponentFinished() {
+        return !"NO".equals(opponentTime);
+    }
+}
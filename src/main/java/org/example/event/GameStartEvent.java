@@ -0,0 +1,19 @@
+package org.example.event;
+
+import org.example.model.GameState;
+
+/**
+ * Начало гонки с уже разобранной трассой
+ */
+public class GameStartEvent extends ServerEvent {
+    private final GameState gameState;
+
+    public GameStartEvent(GameState gameState) {
+        super(ServerCommand.START);
+        this.gameState = gameState;
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.event;
+
+import org.example.model.Lobby;
+
+import java.util.List;
+
+/**
+ * Список лобби в ответ на MULTIPLAY
+ */
+public class LobbiesEvent extends ServerEvent {
+    private final List<Lobby> lobbies;
+
+    public LobbiesEvent(List<Lobby> lobbies) {
+        super(ServerCommand.MULTIPLAY_ACK_SUCCESS);
+        this.lobbies = lobbies;
+    }
+
+    public List<Lobby> getLobbies() {
+        return lobbies;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.event;
+
+import org.example.model.Lobby;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Изменение списка лобби по подписке: добавленные или изменившиеся лобби либо id удалённых
+ */
+public class LobbyDeltaEvent extends ServerEvent {
+    private static final int[] NO_IDS = new int[0];
+
+    private final List<Lobby> lobbies;
+    private final int[] removedIds;
+
+    private LobbyDeltaEvent(ServerCommand command, List<Lobby> lobbies, int[] removedIds) {
+        super(command);
+        this.lobbies = lobbies;
+        this.removedIds = removedIds;
+    }
+
+    /**
+     * @param command LOBBY_ADDED или LOBBY_CHANGED
+     */
+    public static LobbyDeltaEvent changed(ServerCommand command, List<Lobby> lobbies) {
+        return new LobbyDeltaEvent(command, lobbies, NO_IDS);
+    }
+
+    public static LobbyDeltaEvent removed(int[] ids) {
+        return new LobbyDeltaEvent(ServerCommand.LOBBY_REMOVED, Collections.emptyList(), ids);
+    }
+
+    /**
+     * Новые или изменившиеся лобби, для LOBBY_REMOVED - пустой список
+     */
+    public List<Lobby> getLobbies() {
+        return lobbies;
+    }
+
+    public int[] getRemovedIds() {
+        return removedIds;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.event;
+
+/**
+ * В лобби зашёл соперник
+ */
+public class PlayerJoinedEvent extends ServerEvent {
+    private final String opponentName;
+
+    public PlayerJoinedEvent(String opponentName) {
+        super(ServerCommand.PLAYER_JOINED);
+        this.opponentName = opponentName;
+    }
+
+    public String getOpponentName() {
+        return opponentName;
+    }
+}
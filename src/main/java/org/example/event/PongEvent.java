@@ -0,0 +1,17 @@
+package org.example.event;
+
+/**
+ * Ответ сервера на PING с номером запроса
+ */
+public class PongEvent extends ServerEvent {
+    private final String sequence;
+
+    public PongEvent(String sequence) {
+        super(ServerCommand.PONG);
+        this.sequence = sequence;
+    }
+
+    public String getSequence() {
+        return sequence;
+    }
+}
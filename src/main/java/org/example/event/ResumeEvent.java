@@ -0,0 +1,18 @@
+package org.example.event;
+
+/**
+ * Служебное событие восстановления сеанса: RESUME_TOKEN с токеном или RESUME_ACK_SUCCESS
+ * с числом сообщений клиента, полученных сервером
+ */
+public class ResumeEvent extends ServerEvent {
+    private final String value;
+
+    public ResumeEvent(ServerCommand command, String value) {
+        super(command);
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.event;
+
+/**
+ * Команды, которые присылает сервер. Имя константы совпадает с именем команды в протоколе
+ */
+public enum ServerCommand {
+    CONNECT_ACK,
+    USER_ACK_CREATE,
+    USER_ACK_CHECK,
+    PASS_ACK_FAIL,
+    PASS_ACK_SUCCESS,
+    MULTIPLAY_ACK_SUCCESS,
+    MULTIPLAY_ACK_FAIL,
+    LOBBY_START_GAME,
+    FULL_LOBBY_ERR,
+    JOIN_LOBBY_ID_ACK_SUCCESS,
+    PLAYER_JOINED,
+    LEFT_JOINED,
+    AFK_TIMEOUT,
+    START,
+    WIN,
+    LOSE,
+    DRAW,
+    MULTILPLAY_TOP_SCORES_LIST_BY_WINS,
+    MULTILPLAY_TOP_SCORES_LIST_BY_TIME,
+    DISCONNECT_ACK,
+
+    /**
+     * Изменения списка лобби по подписке LOBBY_SUBSCRIBE: JSON-массив новых или изменившихся лобби,
+     * для LOBBY_REMOVED - массив id удалённых
+     */
+    LOBBY_ADDED,
+    LOBBY_CHANGED,
+    LOBBY_REMOVED,
+
+    /**
+     * Ответ на PING клиента, служебный: в интерфейс не передаётся
+     */
+    PONG,
+
+    /**
+     * Токен для восстановления сеанса после обрыва, приходит после успешного входа. Служебный
+     */
+    RESUME_TOKEN,
+
+    /**
+     * Сеанс восстановлен, в ответе - сколько сообщений клиента сервер получил. Служебный
+     */
+    RESUME_ACK_SUCCESS,
+
+    /**
+     * Токен неизвестен или сеанс уже закрыт. Служебный
+     */
+    RESUME_ACK_FAIL
+}
@@ -0,0 +1,40 @@
+package org.example.event;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Разобранное сообщение сервера. Команды без полезной нагрузки представлены общими экземплярами этого класса,
+ * команды с данными - наследниками с уже разобранными полями.
+ */
+public class ServerEvent {
+    private static final Map<ServerCommand, ServerEvent> SIMPLE_EVENTS = new EnumMap<>(ServerCommand.class);
+
+    static {
+        for (ServerCommand command : ServerCommand.values()) {
+            SIMPLE_EVENTS.put(command, new ServerEvent(command));
+        }
+    }
+
+    private final ServerCommand command;
+
+    protected ServerEvent(ServerCommand command) {
+        this.command = command;
+    }
+
+    /**
+     * Событие без полезной нагрузки
+     */
+    public static ServerEvent of(ServerCommand command) {
+        return SIMPLE_EVENTS.get(command);
+    }
+
+    public ServerCommand getCommand() {
+        return command;
+    }
+
+    @Override
+    public String toString() {
+        return command.name();
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.event;
+
+import org.example.dispatcher.CommandTrie;
+import org.example.dispatcher.Payload;
+import org.example.jsonparser.JsonParser;
+import org.example.model.GameState;
+import org.example.model.Lobby;
+import org.example.model.TopScoresByTime;
+import org.example.model.TopScoresByWins;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Разбор строк от сервера в события. Вызывается в сетевом потоке, чтобы разбор JSON и полей
+ * никогда не выполнялся в потоке JavaFX.
+ */
+public class ServerEventDecoder {
+
+    /**
+     * Разбор полезной нагрузки одной команды
+     */
+    @FunctionalInterface
+    private interface PayloadDecoder {
+        ServerEvent decode(ServerCommand command, Payload payload);
+    }
+
+    private final CommandTrie<ServerCommand> commands = new CommandTrie<>();
+    private final PayloadDecoder[] decoders = new PayloadDecoder[ServerCommand.values().length];
+
+    public ServerEventDecoder() {
+        for (ServerCommand command : ServerCommand.values()) {
+            commands.put(command.name(), command);
+            decoders[command.ordinal()] = (c, payload) -> ServerEvent.of(c);
+        }
+
+        register(ServerCommand.MULTIPLAY_ACK_SUCCESS, ServerEventDecoder::decodeLobbies);
+        register(ServerCommand.LOBBY_ADDED, ServerEventDecoder::decodeLobbyDelta);
+        register(ServerCommand.LOBBY_CHANGED, ServerEventDecoder::decodeLobbyDelta);
+        register(ServerCommand.LOBBY_REMOVED, ServerEventDecoder::decodeRemovedLobbies);
+        register(ServerCommand.PLAYER_JOINED, (c, payload) -> new PlayerJoinedEvent(payload.field(0)));
+        register(ServerCommand.PONG, (c, payload) -> new PongEvent(payload.field(0)));
+        register(ServerCommand.RESUME_TOKEN, (c, payload) -> new ResumeEvent(c, payload.field(0)));
+        register(ServerCommand.RESUME_ACK_SUCCESS, (c, payload) -> new ResumeEvent(c, payload.field(0)));
+        register(ServerCommand.START, ServerEventDecoder::decodeStart);
+        register(ServerCommand.WIN, ServerEventDecoder::decodeResult);
+        register(ServerCommand.LOSE, ServerEventDecoder::decodeResult);
+        register(ServerCommand.DRAW, ServerEventDecoder::decodeResult);
+        register(ServerCommand.MULTILPLAY_TOP_SCORES_LIST_BY_WINS, ServerEventDecoder::decodeTopScoresByWins);
+        register(ServerCommand.MULTILPLAY_TOP_SCORES_LIST_BY_TIME, ServerEventDecoder::decodeTopScoresByTime);
+    }
+
+    private void register(ServerCommand command, PayloadDecoder decoder) {
+        decoders[command.ordinal()] = decoder;
+    }
+
+    /**
+     * Разбор сообщения вида КОМАНДА[разделитель полезная_нагрузка], разделитель - один символ (' ' или '/')
+     *
+     * @return событие или null, если команда неизвестна или полезную нагрузку не удалось разобрать
+     */
+    public ServerEvent decode(String message) {
+        int tokenEnd = CommandTrie.tokenEnd(message);
+        ServerCommand command = commands.get(message, tokenEnd);
+        if (command == null) {
+            return null;
+        }
+
+        int payloadStart = Math.min(tokenEnd + 1, message.length());
+        Payload payload = new Payload(message, payloadStart, message.length() - payloadStart);
+        return decoders[command.ordinal()].decode(command, payload);
+    }
+
+    /**
+     * Неразобранный список лобби обрабатывается так же, как отказ сервера: возврат в меню
+     */
+    private static ServerEvent decodeLobbies(ServerCommand command, Payload payload) {
+        Optional<List<Lobby>> lobbies = JsonParser.parseLobbies(payload.reader());
+        return lobbies.<ServerEvent>map(LobbiesEvent::new).orElse(ServerEvent.of(ServerCommand.MULTIPLAY_ACK_FAIL));
+    }
+
+    private static ServerEvent decodeLobbyDelta(ServerCommand command, Payload payload) {
+        return JsonParser.parseLobbies(payload.reader())
+                .map(lobbies -> LobbyDeltaEvent.changed(command, lobbies))
+                .orElse(null);
+    }
+
+    private static ServerEvent decodeRemovedLobbies(ServerCommand command, Payload payload) {
+        return JsonParser.parseLobbyIds(payload.reader()).map(LobbyDeltaEvent::removed).orElse(null);
+    }
+
+    private static ServerEvent decodeStart(ServerCommand command, Payload payload) {
+        Optional<GameState> gameState = JsonParser.parseGameState(payload.reader());
+        return gameState.map(GameStartEvent::new).orElse(null);
+    }
+
+    private static ServerEvent decodeResult(ServerCommand command, Payload payload) {
+        return new GameResultEvent(command, payload.field(0), payload.field(1));
+    }
+
+    private static ServerEvent decodeTopScoresByWins(ServerCommand command, Payload payload) {
+        Optional<List<TopScoresByWins>> scores = JsonParser.parseTopScoresByWins(payload.reader());
+        return scores.map(list -> new TopScoresEvent<>(command, list)).orElse(null);
+    }
+
+    private static ServerEvent decodeTopScoresByTime(ServerCommand command, Payload payload) {
+        Optional<List<TopScoresByTime>> scores = JsonParser.parseTopScoresByTime(payload.reader());
+        return scores.map(list -> new TopScoresEvent<>(command, list)).orElse(null);
+    }
+}
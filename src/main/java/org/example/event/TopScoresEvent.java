@@ -0,0 +1,19 @@
+package org.example.event;
+
+import java.util.List;
+
+/**
+ * Таблица лидеров: по победам или по лучшему времени
+ */
+public class TopScoresEvent<T> extends ServerEvent {
+    private final List<T> scores;
+
+    public TopScoresEvent(ServerCommand command, List<T> scores) {
+        super(command);
+        this.scores = scores;
+    }
+
+    public List<T> getScores() {
+        return scores;
+    }
+}
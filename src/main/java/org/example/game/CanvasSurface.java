@@ -0,0 +1,72 @@
+package org.example.game;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import org.example.car.CarSprites;
+import org.example.car.CarStyle;
+
+/**
+ * Отрисовка кадра на холсте JavaFX готовыми изображениями клеток, строк и машинки
+ */
+final class CanvasSurface implements FrameSurface {
+    private static final int CELL_SIZE = CarSprites.CELL_SIZE; // Размер клетки в пикселях
+    private static final Color ROAD_COLOR = Color.GRAY;
+    private static final Color OBSTACLE_COLOR = Color.RED;
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+
+    /**
+     * Изображение машинки игрока, берётся из общего кэша при первой отрисовке
+     */
+    private Image carSprite;
+
+    /**
+     * Кэш клеток и строк трассы, создаётся при первом кадре, когда известна ширина трассы
+     */
+    private TileAtlas atlas;
+
+    CanvasSurface(Canvas canvas) {
+        this.canvas = canvas;
+        this.gc = canvas.getGraphicsContext2D();
+    }
+
+    @Override
+    public void clear() {
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    }
+
+    @Override
+    public void fillCell(int x, int y, boolean obstacle) {
+        gc.setFill(obstacle ? OBSTACLE_COLOR : ROAD_COLOR);
+        gc.fillRect(x * CELL_SIZE, y * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+    }
+
+    @Override
+    public void drawRow(long bits, int lanes, int screenY, int height) {
+        Image row = atlas(lanes).row(bits);
+        gc.drawImage(row, 0, 0, row.getWidth(), height, 0, screenY, row.getWidth(), height);
+    }
+
+    @Override
+    public void drawTile(int x, boolean obstacle, int screenY, int height) {
+        // Широкая трасса рисуется только по клеткам, строки атласа для неё не растеризуются и ширина не нужна
+        gc.drawImage(atlas(0).tile(obstacle), 0, 0, CELL_SIZE, height, x * CELL_SIZE, screenY, CELL_SIZE, height);
+    }
+
+    @Override
+    public void drawCar(int x, int y) {
+        if (carSprite == null) {
+            carSprite = CarSprites.get(CarStyle.PLAYER, 1.0);
+        }
+        gc.drawImage(carSprite, x * CELL_SIZE, y * CELL_SIZE);
+    }
+
+    private TileAtlas atlas(int lanes) {
+        if (atlas == null) {
+            atlas = new TileAtlas(CELL_SIZE, lanes, ROAD_COLOR, OBSTACLE_COLOR);
+        }
+        return atlas;
+    }
+}
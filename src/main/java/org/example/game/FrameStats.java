@@ -0,0 +1,88 @@
+package org.example.game;
+
+import java.util.Arrays;
+
+/**
+ * Статистика последних кадров для HUD: частота кадров, интервал между кадрами, время отрисовки и пропуски.
+ * Используется только из потока JavaFX, память выделяется один раз.
+ */
+final class FrameStats {
+
+    /**
+     * Сколько последних кадров учитывается в перцентилях, около 4 секунд при 60 кадрах в секунду
+     */
+    private static final int WINDOW = 240;
+
+    /**
+     * Интервал больше полутора кадров при 60 Гц считается пропуском кадра
+     */
+    private static final long DROPPED_FRAME_NANOS = 1_000_000_000L / 60 * 3 / 2;
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private final long[] frameIntervals = new long[WINDOW];
+    private final long[] renderTimes = new long[WINDOW];
+    private final long[] sorted = new long[WINDOW];
+    private int size;
+    private int next;
+
+    private long lastFrameNanos = -1;
+    private long droppedFrames;
+    private long secondStartNanos;
+    private int framesThisSecond;
+    private int framesPerSecond;
+
+    /**
+     * Учёт кадра, начатого в frameNanos и отрисованного за renderNanos
+     */
+    void frame(long frameNanos, long renderNanos) {
+        if (lastFrameNanos < 0) {
+            lastFrameNanos = frameNanos;
+            secondStartNanos = frameNanos;
+            return;
+        }
+
+        long interval = frameNanos - lastFrameNanos;
+        lastFrameNanos = frameNanos;
+        if (interval > DROPPED_FRAME_NANOS) {
+            droppedFrames += interval / (DROPPED_FRAME_NANOS * 2 / 3) - 1;
+        }
+
+        frameIntervals[next] = interval;
+        renderTimes[next] = renderNanos;
+        next = (next + 1) % WINDOW;
+        size = Math.min(size + 1, WINDOW);
+
+        framesThisSecond++;
+        if (frameNanos - secondStartNanos >= SECOND_NANOS) {
+            framesPerSecond = framesThisSecond;
+            framesThisSecond = 0;
+            secondStartNanos = frameNanos;
+        }
+    }
+
+    int getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    long frameIntervalQuantile(double quantile) {
+        return quantile(frameIntervals, quantile);
+    }
+
+    long renderTimeQuantile(double quantile) {
+        return quantile(renderTimes, quantile);
+    }
+
+    private long quantile(long[] values, double quantile) {
+        if (size == 0) {
+            return 0;
+        }
+        System.arraycopy(values, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+        int index = (int) Math.ceil(quantile * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))];
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.game;
+
+/**
+ * Поверхность, на которую {@link GameRenderer} рисует кадр.
+ * На экране это холст JavaFX, в тестах - заглушка, для которой не нужен запущенный JavaFX
+ */
+interface FrameSurface {
+
+    /**
+     * Очистка всей поверхности
+     */
+    void clear();
+
+    /**
+     * Заливка клетки x, y цветом препятствия или дороги
+     */
+    void fillCell(int x, int y, boolean obstacle);
+
+    /**
+     * Верхние height пикселей строки из lanes клеток по её битовой маске, начиная с экранной координаты screenY
+     */
+    void drawRow(long bits, int lanes, int screenY, int height);
+
+    /**
+     * Верхние height пикселей одной клетки строки, для строк шире битовой маски
+     */
+    void drawTile(int x, boolean obstacle, int screenY, int height);
+
+    /**
+     * Машинка игрока в клетке x, y
+     */
+    void drawCar(int x, int y);
+}
@@ -2,113 +2,282 @@ package org.example.game;
 
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
-import org.example.listener.ServerListener;
+import jdk.jfr.FlightRecorder;
+import org.example.concurrent.ClientExecutors;
+import org.example.metrics.ClientMetrics;
+import org.example.metrics.LatencyHistogram;
+import org.example.model.Track;
+import org.example.session.GameSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
- * Управление игрой
+ * Управление игрой.
+ * Симуляция идёт в отдельном потоке шагами фиксированной длины, время считается в шагах,
+ * поэтому скорость, замедление и время финиша не зависят от частоты кадров и пауз сборщика мусора.
  */
 public class GameController {
+    private static final Logger logger = LoggerFactory.getLogger(GameController.class);
+
+    /**
+     * Длина шага симуляции
+     */
+    public static final long TICK_MILLIS = 10;
+    public static final long TICK_NANOS = TICK_MILLIS * 1_000_000L;
+
+    /**
+     * Сколько шагов симуляция может догнать за раз после долгой паузы потока
+     */
+    private static final int MAX_CATCH_UP_TICKS = 50;
+
+    private static final long SLOWDOWN_DURATION = 2000;
+    private static final long SLOWDOWN_TICKS = SLOWDOWN_DURATION / TICK_MILLIS;
+    private static final double NORMAL_SPEED = 1.0;
+    private static final double SLOW_SPEED = 0.2;
+
+    /**
+     * Сколько миллисекунд занимает одна строка при скорости 1.0
+     */
+    private static final long ROW_DURATION = 1000;
+
+    // Состояние симуляции, меняется только в потоке симуляции
     private int carX = 0;
     private int carY = 0;
-    private int[][] gameField;
-    private double speed = 1.0;
-    private long slowdownTimer = 0;
-    private static final long SLOWDOWN_DURATION = 2000;
-    private long lastUpdateTime = System.currentTimeMillis();
+    private final Track track;
+    private double speed = NORMAL_SPEED;
+    private long slowdownTicksLeft = 0;
+    private long ticksSinceRowChange = 0;
+
+    /**
+     * Отображаемая доля пути до следующей строки. Не убывает в пределах строки,
+     * чтобы трасса не дёргалась назад при замедлении
+     */
+    private double rowProgress = 0;
+    private long tick = 0;
     private boolean isGameOver = false;
     private int currentRow = 0;
-    private ServerListener serverListener;
 
-    public GameController(int[][] gameField, ServerListener serverListener) {
-        this.gameField = gameField;
-        this.serverListener = serverListener;
-    }
+    private final GameSession session;
 
-    public void handleKeyPress(KeyEvent event) {
-        if (isGameOver) return;
+    /**
+     * Нажатия клавиш из потока JavaFX, применяются в начале следующего шага
+     */
+    private final Queue<KeyCode> pendingKeys = new ConcurrentLinkedQueue<>();
 
-        KeyCode keyCode = event.getCode();
-        int newX = carX;
-        int newY = carY;
+    /**
+     * Последнее опубликованное состояние
+     */
+    private final AtomicReference<RaceSnapshot> snapshot = new AtomicReference<>();
 
+    /**
+     * Время следующего шага, меняется только в потоке симуляции
+     */
+    private long nextTick;
+    private ScheduledFuture<?> simulation;
 
-        if (keyCode == KeyCode.LEFT) {
-            serverListener.sendMessage("MOVE_LEFT");
-            newX--;
-        } else if (keyCode == KeyCode.RIGHT) {
-            serverListener.sendMessage("MOVE_RIGHT");
-            newX++;
-        }
+    /**
+     * Длительность шагов симуляции, общая для всех заездов
+     */
+    private final LatencyHistogram tickHistogram = ClientMetrics.global().histogram("game.tick");
 
+    public GameController(Track track, GameSession session) {
+        this.track = track;
+        this.session = session;
+        publish(System.nanoTime(), 0);
+    }
 
-        if (isValidMove(newX, newY)) {
-            carX = newX;
-            carY = newY;
+    /**
+     * Запуск симуляции в планировщике симуляции
+     */
+    public synchronized void start() {
+        if (simulation != null) {
+            return;
+        }
+        nextTick = System.nanoTime() + TICK_NANOS;
+        simulation = ClientExecutors.simulation().scheduleAtFixedRate(this::runDueTicks, TICK_NANOS, TICK_NANOS, TimeUnit.NANOSECONDS);
+    }
 
-            if(gameField[currentRow + carY][carX] == 1){
-                speed = 0.2;
-                slowdownTimer = System.currentTimeMillis() + SLOWDOWN_DURATION;
-            }
+    /**
+     * Остановка симуляции, например при выходе из игры до финиша
+     */
+    public synchronized void stop() {
+        if (simulation != null) {
+            simulation.cancel(false);
         }
+    }
 
+    public void handleKeyPress(KeyEvent event) {
+        KeyCode keyCode = event.getCode();
+        if (keyCode == KeyCode.LEFT || keyCode == KeyCode.RIGHT) {
+            pendingKeys.add(keyCode);
+        }
     }
 
-    private boolean isValidMove(int x, int y) {
-        return x >= 0 && x < gameField[0].length && y >= 0 && y < gameField.length;
+    /**
+     * Выполнение всех шагов, время которых наступило. Планировщик может запустить задачу позже срока,
+     * поэтому шаги отсчитываются по nanoTime, а не по числу запусков.
+     * Исключение не выпускается наружу: scheduleAtFixedRate молча отменил бы задачу, и заезд бы встал
+     */
+    private void runDueTicks() {
+        try {
+            runTicks();
+        } catch (Throwable e) {
+            logger.error("Ошибка на шаге симуляции {}", tick, e);
+        }
+    }
+
+    private void runTicks() {
+        int ticks = 0;
+        while (!isGameOver && nextTick <= System.nanoTime() && ticks < MAX_CATCH_UP_TICKS) {
+            update();
+            nextTick += TICK_NANOS;
+            ticks++;
+        }
+
+        if (ticks == MAX_CATCH_UP_TICKS) {
+            // Слишком долгая пауза: не пытаемся догнать настенные часы, продолжаем с текущего момента
+            nextTick = System.nanoTime() + TICK_NANOS;
+        }
+        if (isGameOver) {
+            stop();
+        }
     }
 
+    /**
+     * Один шаг симуляции длиной TICK_MILLIS
+     */
     public void update() {
         if (isGameOver) return;
 
-        long currentTime = System.currentTimeMillis();
+        if (!FlightRecorder.isInitialized()) {
+            // Записи JFR нет, событие не создаётся: шаг не выделяет память
+            step();
+            return;
+        }
+
+        SimulationTickEvent event = new SimulationTickEvent();
+        event.begin();
+
+        step();
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = tick;
+            event.row = currentRow;
+            event.carX = carX;
+            event.speed = speed;
+            event.finished = isGameOver;
+            event.commit();
+        }
+    }
+
+    private void step() {
+        long start = System.nanoTime();
 
-        if(gameField[currentRow + carY][carX] == 1){
-            speed = 0.2;
-            slowdownTimer = System.currentTimeMillis() + SLOWDOWN_DURATION;
+        double previousScroll = scrollPosition();
+        tick++;
+
+        KeyCode keyCode;
+        while ((keyCode = pendingKeys.poll()) != null) {
+            applyMove(keyCode);
+        }
+
+        if (track.isObstacle(currentRow + carY, carX)) {
+            slowDown();
         }
 
 
-        if (currentTime - lastUpdateTime > 1000 / speed) {
+        ticksSinceRowChange++;
+        if (ticksSinceRowChange * TICK_MILLIS > ROW_DURATION / speed) {
             currentRow++;
 
-            lastUpdateTime = currentTime;
+            ticksSinceRowChange = 0;
+            rowProgress = 0;
+        } else {
+            rowProgress = Math.max(rowProgress, Math.min(1.0, ticksSinceRowChange * TICK_MILLIS / (ROW_DURATION / speed)));
         }
 
 
-        if (currentTime > slowdownTimer) {
-            speed = 1.0;
+        if (slowdownTicksLeft > 0 && --slowdownTicksLeft == 0) {
+            speed = NORMAL_SPEED;
         }
 
 
-        if (currentRow + carY >= gameField.length) {
+        if (currentRow + carY >= track.getRowCount()) {
             isGameOver = true;
+            session.finish(tick * TICK_MILLIS);
         }
-    }
 
-    public int getCarX() {
-        return carX;
+        long now = System.nanoTime();
+        publish(now, previousScroll);
+        tickHistogram.record(now - start);
     }
 
-    public int getCarY() {
-        return carY;
-    }
+    private void applyMove(KeyCode keyCode) {
+        int newX = carX;
+        int newY = carY;
+
+        boolean left = keyCode == KeyCode.LEFT;
+        if (left) {
+            newX--;
+        } else {
+            newX++;
+        }
 
-    public int[][] getVisibleGameField() {
-        int visibleRows = 10;
-        int[][] visibleField = new int[visibleRows][gameField[0].length];
 
-        for (int y = 0; y < visibleRows; y++) {
-            int row = currentRow + y;
-            if (row < gameField.length) {
-                System.arraycopy(gameField[row], 0, visibleField[y], 0, gameField[row].length);
+        // Автоповтор клавиши у края трассы не должен засыпать сервер ходами, которые ничего не меняют
+        if (isValidMove(newX, newY)) {
+            if (left) {
+                session.moveLeft();
+            } else {
+                session.moveRight();
+            }
+            carX = newX;
+            carY = newY;
+
+            if (track.isObstacle(currentRow + carY, carX)) {
+                slowDown();
             }
         }
+    }
+
+    private void slowDown() {
+        speed = SLOW_SPEED;
+        slowdownTicksLeft = SLOWDOWN_TICKS;
+    }
+
+    private boolean isValidMove(int x, int y) {
+        return x >= 0 && x < track.getWidth() && y >= 0 && y < track.getRowCount();
+    }
+
+    /**
+     * Положение трассы в строках с дробной частью - долей пути до следующей строки
+     */
+    private double scrollPosition() {
+        return currentRow + rowProgress;
+    }
+
+    private void publish(long nowNanos, double previousScroll) {
+        double scroll = scrollPosition();
+        snapshot.set(new RaceSnapshot(tick, nowNanos, currentRow, tick == 0 ? scroll : previousScroll, scroll,
+                carX, carY, isGameOver, isGameOver ? tick * TICK_MILLIS : -1));
+    }
 
-        return visibleField;
+    /**
+     * Последнее состояние гонки, безопасно читать из любого потока
+     */
+    public RaceSnapshot getSnapshot() {
+        return snapshot.get();
     }
 
-    public boolean isGameOver() {
-        return isGameOver;
+    public Track getTrack() {
+        return track;
     }
-}
\ No newline at end of file
+}
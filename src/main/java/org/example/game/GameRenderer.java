@@ -1,62 +1,159 @@
 package org.example.game;
 
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
+import jdk.jfr.FlightRecorder;
+import org.example.car.CarSprites;
+import org.example.model.TrackRows;
 
 
 /**
  * Отрисовка машинки и игрового поля
  */
 public class GameRenderer {
-    private static final int CELL_SIZE = 50; // Размер клетки в пикселях
-    private final Canvas canvas;
-    private final GraphicsContext gc;
+    private static final int CELL_SIZE = CarSprites.CELL_SIZE; // Размер клетки в пикселях
+    private final FrameSurface surface;
+    private final Mode mode;
+
+    /**
+     * Что нарисовано на холсте сейчас, -1 - ничего
+     */
+    private int renderedFirstRow = -1;
+    private int renderedScrollOffset = -1;
+    private int renderedCarX = -1;
+    private int renderedCarY = -1;
+
+    /**
+     * Режим отрисовки
+     */
+    public enum Mode {
+        /**
+         * Каждый кадр холст очищается и все клетки рисуются заново
+         */
+        IMMEDIATE,
+
+        /**
+         * Строки трассы берутся из кэша готовых изображений, кадр перерисовывается только при изменениях
+         */
+        CACHED
+    }
 
     public GameRenderer(Canvas canvas) {
-        this.canvas = canvas;
-        this.gc = canvas.getGraphicsContext2D();
-    }
-
-    public void renderGameField(int[][] gameField) {
-        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-
-        for (int y = 0; y < gameField.length; y++) {
-            for (int x = 0; x < gameField[y].length; x++) {
-                if (gameField[y][x] == 1) {
-                    // Отрисовка препятствия
-                    gc.setFill(Color.RED);
-                    gc.fillRect(x * CELL_SIZE, y * CELL_SIZE, CELL_SIZE, CELL_SIZE);
-                } else {
-                    // Отрисовка дороги
-                    gc.setFill(Color.GRAY);
-                    gc.fillRect(x * CELL_SIZE, y * CELL_SIZE, CELL_SIZE, CELL_SIZE);
-                }
-            }
-        }
+        this(canvas, Mode.CACHED);
     }
 
-    public void renderCar(int x, int y) {
-        // Отрисовка машинки
-        gc.save();
-        gc.translate(x * CELL_SIZE, y * CELL_SIZE);
-        drawCar(gc);
-        gc.restore();
+    public GameRenderer(Canvas canvas, Mode mode) {
+        this(new CanvasSurface(canvas), mode);
     }
 
-    private void drawCar(GraphicsContext gc) {
+    GameRenderer(FrameSurface surface, Mode mode) {
+        this.surface = surface;
+        this.mode = mode;
+    }
 
-        gc.setFill(Color.BLUE);
-        gc.fillRect(10, 10, 30, 20);
+    /**
+     * Отрисовка кадра: видимой части трассы и машинки
+     *
+     * @param scrollOffset на сколько пикселей трасса уже сдвинулась к следующей строке (плавная прокрутка),
+     *                     в режиме IMMEDIATE не учитывается
+     */
+    public void renderFrame(Viewport viewport, int scrollOffset, int carX, int carY) {
+        if (!FlightRecorder.isInitialized()) {
+            // Записи JFR нет, событие не создаётся: кадр не выделяет память
+            drawFrame(viewport, scrollOffset, carX, carY);
+            return;
+        }
 
+        RenderFrameEvent event = new RenderFrameEvent();
+        event.begin();
 
-        gc.setFill(Color.LIGHTBLUE);
-        gc.fillRect(15, 12, 8, 6); // Левое окно
-        gc.fillRect(27, 12, 8, 6); // Правое окно
+        boolean redrawn = drawFrame(viewport, scrollOffset, carX, carY);
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.mode = mode.name();
+            event.firstRow = viewport.getFirstRow();
+            event.scrollOffset = scrollOffset;
+            event.redrawn = redrawn;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return false, если кадр не изменился и холст не трогали
+     */
+    private boolean drawFrame(Viewport viewport, int scrollOffset, int carX, int carY) {
+        if (mode == Mode.IMMEDIATE) {
+            renderGameField(viewport);
+            renderCar(carX, carY);
+            return true;
+        }
 
-        gc.setFill(Color.BLACK);
-        gc.fillOval(12, 25, 8, 8); // Левое колесо
-        gc.fillOval(30, 25, 8, 8); // Правое колесо
+        boolean scrolled = viewport.getFirstRow() != renderedFirstRow || scrollOffset != renderedScrollOffset;
+        boolean carMoved = carX != renderedCarX || carY != renderedCarY;
+        if (!scrolled && !carMoved) {
+            // Ничего не изменилось, на холсте уже нужная картинка
+            return false;
+        }
+
+        if (scrolled || scrollOffset != 0) {
+            for (int y = 0; y < viewport.getRowCount(); y++) {
+                drawRow(viewport, y, y * CELL_SIZE - scrollOffset, CELL_SIZE);
+            }
+            if (scrollOffset > 0) {
+                // Верх следующей строки, въезжающей снизу
+                int y = viewport.getRowCount();
+                drawRow(viewport, y, y * CELL_SIZE - scrollOffset, scrollOffset);
+            }
+        } else {
+            // Стираем машинку со старого места, перерисовав её строку
+            drawRow(viewport, renderedCarY, renderedCarY * CELL_SIZE, CELL_SIZE);
+        }
+        renderCar(carX, carY);
+
+        renderedFirstRow = viewport.getFirstRow();
+        renderedScrollOffset = scrollOffset;
+        renderedCarX = carX;
+        renderedCarY = carY;
+        return true;
+    }
+
+    /**
+     * Следующий кадр будет нарисован полностью
+     */
+    public void invalidate() {
+        renderedFirstRow = -1;
+        renderedScrollOffset = -1;
+        renderedCarX = -1;
+        renderedCarY = -1;
+    }
+
+    public void renderGameField(TrackRows gameField) {
+        surface.clear();
+
+        for (int y = 0; y < gameField.getRowCount(); y++) {
+            for (int x = 0; x < gameField.getWidth(); x++) {
+                surface.fillCell(x, y, gameField.isObstacle(y, x));
+            }
+        }
+        invalidate();
+    }
+
+    public void renderCar(int x, int y) {
+        // Отрисовка машинки готовым изображением
+        surface.drawCar(x, y);
+    }
+
+    /**
+     * Отрисовка верхних height пикселей строки трассы y готовым изображением из кэша
+     */
+    private void drawRow(TrackRows rows, int y, int screenY, int height) {
+        if (rows.getWidth() <= Long.SIZE) {
+            surface.drawRow(rows.rowBits(y), rows.getWidth(), screenY, height);
+        } else {
+            // Строка не помещается в одно слово, рисуем её по клеткам из атласа
+            for (int x = 0; x < rows.getWidth(); x++) {
+                surface.drawTile(x, rows.isObstacle(y, x), screenY, height);
+            }
+        }
     }
-}
\ No newline at end of file
+}
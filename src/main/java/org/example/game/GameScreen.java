@@ -1,74 +1,127 @@
 package org.example.game;
 
 import javafx.animation.AnimationTimer;
-import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.control.Alert;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.StackPane;
+import lombok.AccessLevel;
 import lombok.Getter;
-import org.example.listener.ServerListener;
+import org.example.car.CarSprites;
+import org.example.listener.InboundEventQueue;
+import org.example.metrics.ClientMetrics;
+import org.example.metrics.LatencyHistogram;
+import org.example.model.Track;
+import org.example.session.GameSession;
 
 
 /**
- * Игровой цикл
+ * Игровой цикл: отрисовка состояния, которое публикует поток симуляции {@link GameController}
  */
 @Getter
 public class GameScreen {
+    private static final int VISIBLE_ROWS = 10;
     private final Canvas canvas;
     private final GameRenderer gameRenderer;
     private final GameController gameController;
+    private final Viewport viewport;
     public boolean isGameOver = false;
-    private long startTime;
-    private ServerListener serverListener;
+    private GameSession session;
     private GameScreen gameScreen;
+    @Getter(AccessLevel.NONE)
+    private final FrameStats frameStats = new FrameStats();
+    @Getter(AccessLevel.NONE)
+    private final HudOverlay hud;
+    @Getter(AccessLevel.NONE)
+    private final LatencyHistogram renderHistogram = ClientMetrics.global().histogram("game.render");
 
-    public GameScreen(int[][] gameField, ServerListener serverListener) {
+    /**
+     * @param inboundQueue очередь входящих событий клиента, её глубина показывается в HUD
+     */
+    public GameScreen(Track track, GameSession session, InboundEventQueue inboundQueue) {
         this.canvas = new Canvas(1920, 1080);
         this.gameRenderer = new GameRenderer(canvas);
-        this.gameController = new GameController(gameField, serverListener);
-        this.serverListener = serverListener;
+        this.gameController = new GameController(track, session);
+        this.viewport = new Viewport(track, VISIBLE_ROWS);
+        this.session = session;
+        this.hud = new HudOverlay(frameStats, inboundQueue, () -> session.getServerListener().getOutboundQueue());
 
         // Отрисовка начального состояния
-        gameRenderer.renderGameField(gameController.getVisibleGameField());
-        gameRenderer.renderCar(gameController.getCarX(), gameController.getCarY());
-
-        startTime = System.currentTimeMillis();
+        render(gameController.getSnapshot(), System.nanoTime());
     }
 
     public Scene getScene() {
-        StackPane root = new StackPane(canvas);
+        StackPane root = new StackPane(canvas, hud.getNode());
         Scene scene = new Scene(root);
 
 
-        scene.setOnKeyPressed(gameController::handleKeyPress);
+        scene.setOnKeyPressed(this::handleKeyPress);
 
-        // Игровой цикл
+        // Игровой цикл: симуляция идёт в своём потоке, здесь только отрисовка
         new AnimationTimer() {
             @Override
             public void handle(long now) {
-                if (!isGameOver) {
-                    gameController.update();
-                    gameRenderer.renderGameField(gameController.getVisibleGameField());
-                    gameRenderer.renderCar(gameController.getCarX(), gameController.getCarY());
-
-                    // Проверка на финиш
-                    if (gameController.isGameOver()) {
-                        isGameOver = true;
-
-                        long finishTime = System.currentTimeMillis() - startTime;
-                        serverListener.sendMessage("FINISH/" + finishTime);
-
-                        root.getChildren().clear();
-                        GraphicsContext gc = canvas.getGraphicsContext2D();
-                        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-                    }
+                if (isGameOver) {
+                    gameController.stop();
+                    stop();
+                    return;
+                }
+
+                RaceSnapshot snapshot = gameController.getSnapshot();
+                long renderStart = System.nanoTime();
+                render(snapshot, renderStart);
+                long renderTime = System.nanoTime() - renderStart;
+                frameStats.frame(now, renderTime);
+                renderHistogram.record(renderTime);
+                hud.refresh(now);
+
+                // Проверка на финиш, время финиша уже отправлено потоком симуляции
+                if (snapshot.isGameOver()) {
+                    isGameOver = true;
+                    stop();
+
+                    root.getChildren().clear();
+                    GraphicsContext gc = canvas.getGraphicsContext2D();
+                    gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
                 }
             }
         }.start();
 
+        gameController.start();
 
         return scene;
     }
-}
\ No newline at end of file
+
+    /**
+     * F3 переключает HUD, остальные клавиши уходят в управление машинкой
+     */
+    private void handleKeyPress(KeyEvent event) {
+        if (event.getCode() == KeyCode.F3) {
+            hud.toggle();
+        } else {
+            gameController.handleKeyPress(event);
+        }
+    }
+
+    /**
+     * Остановка игры до финиша
+     */
+    public void stop() {
+        isGameOver = true;
+        gameController.stop();
+    }
+
+    /**
+     * Отрисовка состояния, интерполированного между двумя последними шагами симуляции
+     */
+    private void render(RaceSnapshot snapshot, long nowNanos) {
+        double scroll = snapshot.interpolateScroll(nowNanos);
+        int firstRow = (int) scroll;
+        int scrollOffset = (int) ((scroll - firstRow) * CarSprites.CELL_SIZE);
+
+        viewport.scrollTo(firstRow);
+        gameRenderer.renderFrame(viewport, scrollOffset, snapshot.getCarX(), snapshot.getCarY());
+    }
+}
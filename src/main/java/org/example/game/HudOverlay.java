@@ -0,0 +1,80 @@
+package org.example.game;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+import org.example.listener.InboundEventQueue;
+import org.example.listener.OutboundQueue;
+import org.example.metrics.ClientMetrics;
+import org.example.metrics.LatencyHistogram;
+
+import java.util.function.Supplier;
+
+/**
+ * Отладочный HUD поверх холста: кадры, время отрисовки и шага симуляции, очереди сети. Переключается клавишей F3
+ */
+final class HudOverlay {
+
+    /**
+     * Текст обновляется не чаще четырёх раз в секунду, чтобы сам HUD не нагружал кадр
+     */
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    private final Label label = new Label();
+    private final FrameStats frameStats;
+    private final InboundEventQueue inboundQueue;
+    /**
+     * Очередь текущего соединения: после восстановления сеанса оно другое
+     */
+    private final Supplier<OutboundQueue> outboundQueue;
+    private final LatencyHistogram tickHistogram = ClientMetrics.global().histogram("game.tick");
+    private long lastRefreshNanos;
+
+    HudOverlay(FrameStats frameStats, InboundEventQueue inboundQueue, Supplier<OutboundQueue> outboundQueue) {
+        this.frameStats = frameStats;
+        this.inboundQueue = inboundQueue;
+        this.outboundQueue = outboundQueue;
+
+        label.setStyle("-fx-font-family: monospace; -fx-font-size: 14px; -fx-text-fill: white; "
+                + "-fx-background-color: rgba(0, 0, 0, 0.6);");
+        label.setPadding(new Insets(6));
+        label.setMouseTransparent(true);
+        label.setVisible(false);
+        StackPane.setAlignment(label, Pos.TOP_LEFT);
+    }
+
+    Label getNode() {
+        return label;
+    }
+
+    void toggle() {
+        label.setVisible(!label.isVisible());
+        lastRefreshNanos = 0;
+    }
+
+    void refresh(long nowNanos) {
+        if (!label.isVisible() || nowNanos - lastRefreshNanos < REFRESH_NANOS) {
+            return;
+        }
+        lastRefreshNanos = nowNanos;
+        OutboundQueue outbound = outboundQueue.get();
+
+        label.setText(String.format(
+                "FPS %d, пропущено кадров %d%n"
+                        + "кадр p50 %.1f мс, p99 %.1f мс%n"
+                        + "отрисовка p50 %.2f мс, p99 %.2f мс%n"
+                        + "шаг симуляции p99 %.3f мс%n"
+                        + "очередь входящих %d, исходящих %d",
+                frameStats.getFramesPerSecond(), frameStats.getDroppedFrames(),
+                millis(frameStats.frameIntervalQuantile(0.5)), millis(frameStats.frameIntervalQuantile(0.99)),
+                millis(frameStats.renderTimeQuantile(0.5)), millis(frameStats.renderTimeQuantile(0.99)),
+                tickHistogram.getP99Millis(),
+                inboundQueue == null ? 0 : inboundQueue.getQueueDepth(),
+                outbound == null ? 0 : outbound.getQueueDepth()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
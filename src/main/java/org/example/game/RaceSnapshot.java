@@ -0,0 +1,72 @@
+package org.example.game;
+
+/**
+ * Неизменяемое состояние гонки после очередного шага симуляции.
+ * Публикуется потоком симуляции и читается потоком отрисовки без блокировок.
+ */
+public final class RaceSnapshot {
+    private final long tick;
+    private final long publishedAtNanos;
+    private final int currentRow;
+    private final double previousScrollPosition;
+    private final double scrollPosition;
+    private final int carX;
+    private final int carY;
+    private final boolean gameOver;
+    private final long finishTimeMillis;
+
+    RaceSnapshot(long tick, long publishedAtNanos, int currentRow, double previousScrollPosition, double scrollPosition,
+                 int carX, int carY, boolean gameOver, long finishTimeMillis) {
+        this.tick = tick;
+        this.publishedAtNanos = publishedAtNanos;
+        this.currentRow = currentRow;
+        this.previousScrollPosition = previousScrollPosition;
+        this.scrollPosition = scrollPosition;
+        this.carX = carX;
+        this.carY = carY;
+        this.gameOver = gameOver;
+        this.finishTimeMillis = finishTimeMillis;
+    }
+
+    /**
+     * Положение трассы в строках (целая часть - текущая строка, дробная - путь до следующей),
+     * интерполированное между предыдущим и этим шагом симуляции на момент nowNanos
+     */
+    public double interpolateScroll(long nowNanos) {
+        double alpha = (double) (nowNanos - publishedAtNanos) / GameController.TICK_NANOS;
+        if (alpha <= 0) {
+            return previousScrollPosition;
+        }
+        if (alpha >= 1) {
+            return scrollPosition;
+        }
+        return previousScrollPosition + (scrollPosition - previousScrollPosition) * alpha;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getCurrentRow() {
+        return currentRow;
+    }
+
+    public int getCarX() {
+        return carX;
+    }
+
+    public int getCarY() {
+        return carY;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Время прохождения трассы в миллисекундах симуляции, -1 пока гонка идёт
+     */
+    public long getFinishTimeMillis() {
+        return finishTimeMillis;
+    }
+}
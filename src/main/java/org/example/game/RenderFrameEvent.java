@@ -0,0 +1,27 @@
+package org.example.game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR на каждый кадр, длительность события - время отрисовки
+ */
+@Name("org.example.RenderFrame")
+@Label("Отрисовка кадра")
+@Category("Rally")
+@Description("Один вызов GameRenderer.renderFrame")
+final class RenderFrameEvent extends jdk.jfr.Event {
+    @Label("Режим")
+    String mode;
+
+    @Label("Первая строка")
+    int firstRow;
+
+    @Label("Сдвиг в пикселях")
+    int scrollOffset;
+
+    @Label("Холст перерисован")
+    boolean redrawn;
+}
@@ -0,0 +1,30 @@
+package org.example.game;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR на каждый шаг симуляции, длительность события - время шага
+ */
+@Name("org.example.SimulationTick")
+@Label("Шаг симуляции")
+@Category("Rally")
+@Description("Один шаг GameController.update")
+final class SimulationTickEvent extends jdk.jfr.Event {
+    @Label("Шаг")
+    long tick;
+
+    @Label("Строка трассы")
+    int row;
+
+    @Label("Полоса машинки")
+    int carX;
+
+    @Label("Скорость")
+    double speed;
+
+    @Label("Финиш")
+    boolean finished;
+}
@@ -0,0 +1,104 @@
+package org.example.game;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+
+/**
+ * Заранее растеризованные клетки трассы и собранные из них полосы-строки.
+ * Строки кэшируются по битовой маске, поэтому повторяющиеся участки трассы растеризуются один раз.
+ * Кэш - таблица с открытой адресацией по примитивному ключу: поиск строки в кадре не упаковывает long в Long.
+ */
+final class TileAtlas {
+
+    /**
+     * Сколько различных строк держать в кэше
+     */
+    private static final int MAX_CACHED_ROWS = 256;
+
+    /**
+     * Размер таблицы - степень двойки, вдвое больше предела, чтобы цепочки проб оставались короткими
+     */
+    private static final int TABLE_SIZE = MAX_CACHED_ROWS * 2;
+
+    private final int cellSize;
+    private final int width;
+    private final Image roadTile;
+    private final Image obstacleTile;
+
+    /**
+     * Маски строк и их изображения, пустая ячейка - null в rowImages
+     */
+    private final long[] rowKeys = new long[TABLE_SIZE];
+    private final Image[] rowImages = new Image[TABLE_SIZE];
+    private int cachedRows;
+
+    TileAtlas(int cellSize, int width, Color road, Color obstacle) {
+        this.cellSize = cellSize;
+        this.width = width;
+        this.roadTile = solidTile(road);
+        this.obstacleTile = solidTile(obstacle);
+    }
+
+    Image tile(boolean obstacle) {
+        return obstacle ? obstacleTile : roadTile;
+    }
+
+    /**
+     * Изображение строки трассы шириной width клеток по её битовой маске
+     */
+    Image row(long bits) {
+        int slot = slot(bits);
+        while (rowImages[slot] != null) {
+            if (rowKeys[slot] == bits) {
+                return rowImages[slot];
+            }
+            slot = (slot + 1) & (TABLE_SIZE - 1);
+        }
+
+        if (cachedRows == MAX_CACHED_ROWS) {
+            // Трасса длиннее кэша и почти не повторяется: начинаем кэш заново, видимые строки растеризуются снова
+            Arrays.fill(rowImages, null);
+            cachedRows = 0;
+            slot = slot(bits);
+        }
+        Image row = rasterizeRow(bits);
+        rowKeys[slot] = bits;
+        rowImages[slot] = row;
+        cachedRows++;
+        return row;
+    }
+
+    private static int slot(long bits) {
+        // Перемешиваем биты: соседние маски отличаются в младших битах и иначе легли бы в соседние ячейки
+        long hash = bits * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (TABLE_SIZE - 1);
+    }
+
+    private Image rasterizeRow(long bits) {
+        WritableImage row = new WritableImage(width * cellSize, cellSize);
+        PixelWriter writer = row.getPixelWriter();
+        PixelReader road = roadTile.getPixelReader();
+        PixelReader obstacle = obstacleTile.getPixelReader();
+        for (int lane = 0; lane < width; lane++) {
+            PixelReader tile = (bits & (1L << lane)) != 0 ? obstacle : road;
+            writer.setPixels(lane * cellSize, 0, cellSize, cellSize, tile, 0, 0);
+        }
+        return row;
+    }
+
+    private Image solidTile(Color color) {
+        WritableImage tile = new WritableImage(cellSize, cellSize);
+        PixelWriter writer = tile.getPixelWriter();
+        for (int y = 0; y < cellSize; y++) {
+            for (int x = 0; x < cellSize; x++) {
+                writer.setColor(x, y, color);
+            }
+        }
+        return tile;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.game;
+
+import org.example.model.Track;
+import org.example.model.TrackRows;
+
+/**
+ * Видимая часть трассы: окно только для чтения над {@link Track}, сдвигаемое по текущей строке.
+ * Один и тот же объект переиспользуется каждый кадр, поэтому отрисовка поля не выделяет память.
+ * Строка сразу под окном (row == getRowCount()) тоже доступна: она частично видна при плавной прокрутке.
+ */
+public final class Viewport implements TrackRows {
+    private final Track track;
+    private final int rowCount;
+    private int firstRow;
+
+    public Viewport(Track track, int rowCount) {
+        this.track = track;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Сдвиг окна так, чтобы его первой строкой стала строка трассы firstRow
+     */
+    public void scrollTo(int firstRow) {
+        this.firstRow = firstRow;
+    }
+
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    @Override
+    public int getWidth() {
+        return track.getWidth();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Строки за концом трассы считаются дорогой без препятствий
+     */
+    @Override
+    public boolean isObstacle(int row, int lane) {
+        int trackRow = firstRow + row;
+        return trackRow < track.getRowCount() && track.isObstacle(trackRow, lane);
+    }
+
+    @Override
+    public long rowBits(int row) {
+        int trackRow = firstRow + row;
+        return trackRow < track.getRowCount() ? track.rowBits(trackRow) : 0L;
+    }
+}
@@ -1,15 +1,18 @@
 package org.example.jsonparser;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.example.model.GameState;
 import org.example.model.Lobby;
 import org.example.model.TopScoresByTime;
 import org.example.model.TopScoresByWins;
+import org.example.model.Track;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,43 +20,121 @@ public class JsonParser {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonParser.class);
 
-    public static Optional<List<Lobby>> parseLobbies(String json) {
-        ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Общий ObjectMapper: создавать его на каждый вызов дорого, а после настройки он потокобезопасен
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Заранее построенные ObjectReader для каждого типа ответа, неизменяемые и потокобезопасные
+     */
+    private static final ObjectReader LOBBIES_READER = listReader(Lobby.class);
+    private static final ObjectReader TOP_SCORES_BY_WINS_READER = listReader(TopScoresByWins.class);
+    private static final ObjectReader TOP_SCORES_BY_TIME_READER = listReader(TopScoresByTime.class);
+    private static final ObjectReader LOBBY_IDS_READER = OBJECT_MAPPER.readerFor(int[].class);
+
+    private static final String GAME_FIELD = "game_field";
+
+    private static ObjectReader listReader(Class<?> elementType) {
+        return OBJECT_MAPPER.readerFor(OBJECT_MAPPER.getTypeFactory().constructCollectionType(List.class, elementType));
+    }
+
+    public static Optional<List<Lobby>> parseLobbies(Reader json) {
         try {
-            return Optional.of(objectMapper.readValue(json, objectMapper.getTypeFactory().constructCollectionType(List.class, Lobby.class)));
-        } catch (JsonProcessingException e) {
-            logger.info("Произошла ошибка " + e.getMessage() + " при парсинге лобби");
+            return Optional.of(LOBBIES_READER.readValue(json));
+        } catch (IOException e) {
+            logger.info("Произошла ошибка {} при парсинге лобби", e.getMessage());
             return Optional.empty();
         }
     }
 
-    public static Optional<GameState> parseGameState(String json) {
-        ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Массив id лобби, например удалённых
+     */
+    public static Optional<int[]> parseLobbyIds(Reader json) {
         try {
-            return Optional.of(objectMapper.readValue(json, GameState.class));
-        } catch (JsonProcessingException e) {
-            logger.info("Произошла ошибка " + e.getMessage() + " при парсинге игрового состояния");
+            return Optional.of(LOBBY_IDS_READER.readValue(json));
+        } catch (IOException e) {
+            logger.info("Произошла ошибка {} при парсинге id лобби", e.getMessage());
             return Optional.empty();
         }
     }
 
-    public static Optional<List<TopScoresByWins>> parseTopScoresByWins(String json) {
-        ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Потоковый разбор стартового состояния: клетки трассы упаковываются в биты прямо из токенов,
+     * без промежуточных коллекций, которые Jackson строит для int[][]
+     */
+    public static Optional<GameState> parseGameState(Reader json) {
+        try (com.fasterxml.jackson.core.JsonParser parser = OBJECT_MAPPER.getFactory().createParser(json)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+            Track track = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (GAME_FIELD.equals(fieldName) && value != JsonToken.VALUE_NULL) {
+                    track = readTrack(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            expect(parser.currentToken(), JsonToken.END_OBJECT);
+            if (track == null) {
+                throw new IOException("В стартовом состоянии нет поля " + GAME_FIELD);
+            }
+
+            return Optional.of(new GameState(track));
+        } catch (IOException e) {
+            logger.info("Произошла ошибка {} при парсинге игрового состояния", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public static Optional<List<TopScoresByWins>> parseTopScoresByWins(Reader json) {
         try {
-            return Optional.of(objectMapper.readValue(json, objectMapper.getTypeFactory().constructCollectionType(List.class, TopScoresByWins.class)));
-        } catch (JsonProcessingException e) {
-            logger.info("Произошла ошибка " + e.getMessage() + " при парсинге score by wins");
+            return Optional.of(TOP_SCORES_BY_WINS_READER.readValue(json));
+        } catch (IOException e) {
+            logger.info("Произошла ошибка {} при парсинге score by wins", e.getMessage());
             return Optional.empty();
         }
     }
 
-    public static Optional<List<TopScoresByTime>> parseTopScoresByTime(String json) {
-        ObjectMapper objectMapper = new ObjectMapper();
+    public static Optional<List<TopScoresByTime>> parseTopScoresByTime(Reader json) {
         try {
-            return Optional.of(objectMapper.readValue(json, objectMapper.getTypeFactory().constructCollectionType(List.class, TopScoresByTime.class)));
-        } catch (JsonProcessingException e) {
-            logger.info("Произошла ошибка " + e.getMessage() + " при парсинге score by time");
+            return Optional.of(TOP_SCORES_BY_TIME_READER.readValue(json));
+        } catch (IOException e) {
+            logger.info("Произошла ошибка {} при парсинге score by time", e.getMessage());
             return Optional.empty();
         }
     }
+
+    /**
+     * Чтение массива строк трассы прямо в битовое представление, парсер стоит на START_ARRAY
+     */
+    private static Track readTrack(com.fasterxml.jackson.core.JsonParser parser) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_ARRAY);
+
+        Track.Builder builder = new Track.Builder();
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.START_ARRAY) {
+            while ((token = parser.nextToken()) == JsonToken.VALUE_NUMBER_INT) {
+                builder.addCell(parser.getIntValue() == 1);
+            }
+            expect(token, JsonToken.END_ARRAY);
+            try {
+                builder.endRow();
+            } catch (IllegalStateException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+        expect(token, JsonToken.END_ARRAY);
+
+        return builder.build();
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Ожидался токен " + expected + ", получен " + actual);
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package org.example.listener;
+
+import org.example.concurrent.ClientExecutors;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Проверка живости соединения: раз в интервал серверу уходит PING/номер, сервер отвечает PONG/номер.
+ * Если от сервера ничего не приходило дольше таймаута, соединение считается мёртвым.
+ * Таймаут действует только после первого PONG: сервер без поддержки PING на него не отвечает,
+ * и молчание такого сервера, пока игрок ничего не делает, - не обрыв.
+ * Обрыв обнаруживается не позже чем через таймаут плюс интервал.
+ * Время PING-PONG записывается в метрики как rtt.PING тем же {@link org.example.metrics.RequestTracker}, что и для остальных запросов
+ */
+public class Heartbeat {
+
+    public static final String ENABLED_PROPERTY = "rally.heartbeat.enabled";
+    public static final String INTERVAL_PROPERTY = "rally.heartbeat.intervalMillis";
+    public static final String TIMEOUT_PROPERTY = "rally.heartbeat.timeoutMillis";
+
+    private static final long DEFAULT_INTERVAL_MILLIS = 5_000;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 15_000;
+
+    private final Consumer<String> sender;
+    private final Runnable onTimeout;
+    private final long intervalNanos;
+    private final long timeoutNanos;
+
+    private volatile long lastReceivedNanos;
+
+    /**
+     * Сервер хотя бы раз ответил PONG
+     */
+    private volatile boolean pongSeen;
+    private long pingSequence;
+
+    private ScheduledFuture<?> task;
+    private boolean stopped;
+
+    /**
+     * @param sender    отправка сообщения серверу
+     * @param onTimeout вызывается один раз, когда сервер молчит дольше таймаута
+     */
+    public Heartbeat(Consumer<String> sender, Runnable onTimeout, long intervalMillis, long timeoutMillis) {
+        this.sender = sender;
+        this.onTimeout = onTimeout;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    }
+
+    public static long intervalMillis() {
+        return Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Таймаут молчания сервера, он же таймаут чтения блокирующего сокета
+     */
+    public static long timeoutMillis() {
+        return Long.getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public synchronized void start() {
+        if (task != null || stopped) {
+            return;
+        }
+        lastReceivedNanos = System.nanoTime();
+        task = ClientExecutors.scheduler().scheduleAtFixedRate(this::beat, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * Любое сообщение сервера подтверждает, что соединение живо
+     */
+    public void messageReceived(long nowNanos) {
+        lastReceivedNanos = nowNanos;
+    }
+
+    /**
+     * Ответ сервера на PING, включает таймаут молчания
+     *
+     * @return true для первого PONG соединения
+     */
+    public boolean pongReceived() {
+        if (pongSeen) {
+            return false;
+        }
+        pongSeen = true;
+        return true;
+    }
+
+    private void beat() {
+        long now = System.nanoTime();
+        if (pongSeen && now - lastReceivedNanos > timeoutNanos) {
+            stop();
+            onTimeout.run();
+            return;
+        }
+
+        pingSequence++;
+        sender.accept("PING/" + pingSequence);
+    }
+}
@@ -0,0 +1,221 @@
+package org.example.listener;
+
+import org.example.event.ServerCommand;
+import org.example.event.ServerEvent;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченная очередь входящих событий между сетевым потоком и потоком JavaFX.
+ * Вместо Platform.runLater на каждое сообщение в поток JavaFX ставится одна задача на всю пачку:
+ * пока она не выполнилась, новые события просто добавляются в очередь и применяются той же задачей.
+ * Сетевой поток может быть виртуальным, поэтому при BLOCK он ждёт на ReentrantLock, а не в synchronized.
+ */
+public class InboundEventQueue {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Что делать, когда очередь заполнена
+     */
+    public enum OverflowPolicy {
+        /**
+         * Сетевой поток ждёт, пока поток JavaFX разберёт очередь
+         */
+        BLOCK,
+
+        /**
+         * Вытесняются самые старые снимки (списки лобби, таблицы лидеров), а если их нет,
+         * новый снимок отбрасывается. Остальные события принимаются всегда, даже сверх ёмкости
+         */
+        DROP_SNAPSHOTS
+    }
+
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor applyExecutor;
+    private final Consumer<ServerEvent> consumer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private ArrayDeque<Entry> draining = new ArrayDeque<>();
+    private boolean drainScheduled;
+    private final Runnable drainTask = this::drain;
+
+    private volatile int queueDepth;
+    private volatile long lastDrainLatencyNanos;
+    private volatile long maxDrainLatencyNanos;
+    private volatile long drainCount;
+    private volatile long supersededCount;
+    private volatile long droppedCount;
+
+    /**
+     * @param capacity       сколько событий может ждать применения
+     * @param overflowPolicy поведение при заполненной очереди
+     * @param applyExecutor  где применять события, для клиента - Platform::runLater
+     * @param consumer       применение одного события
+     */
+    public InboundEventQueue(int capacity, OverflowPolicy overflowPolicy, Executor applyExecutor, Consumer<ServerEvent> consumer) {
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.applyExecutor = applyExecutor;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Снимки состояния: новый снимок полностью заменяет ещё не применённый предыдущий.
+     * Команды игры (START, WIN, LOSE и т.д.) к ним не относятся и никогда не отбрасываются
+     */
+    public static boolean isSnapshot(ServerCommand command) {
+        return command == ServerCommand.MULTIPLAY_ACK_SUCCESS
+                || command == ServerCommand.MULTILPLAY_TOP_SCORES_LIST_BY_WINS
+                || command == ServerCommand.MULTILPLAY_TOP_SCORES_LIST_BY_TIME;
+    }
+
+    /**
+     * Постановка события в очередь, вызывается из сетевого потока
+     *
+     * @return false, если событие отброшено
+     */
+    public boolean offer(ServerEvent event) throws InterruptedException {
+        boolean snapshot = isSnapshot(event.getCommand());
+        lock.lock();
+        try {
+            if (snapshot && removePending(event.getCommand())) {
+                supersededCount++;
+            }
+
+            if (pending.size() >= capacity) {
+                if (overflowPolicy == OverflowPolicy.BLOCK) {
+                    while (pending.size() >= capacity) {
+                        notFull.await();
+                    }
+                } else if (!removeOldestSnapshot() && snapshot) {
+                    droppedCount++;
+                    return false;
+                }
+            }
+
+            pending.addLast(new Entry(event, System.nanoTime()));
+            queueDepth = pending.size();
+
+            if (!drainScheduled) {
+                drainScheduled = true;
+                applyExecutor.execute(drainTask);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Применение всех накопленных событий одной пачкой, выполняется в потоке JavaFX
+     */
+    private void drain() {
+        ArrayDeque<Entry> batch;
+        lock.lock();
+        try {
+            batch = pending;
+            pending = draining;
+            draining = batch;
+            drainScheduled = false;
+            queueDepth = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        Entry entry;
+        while ((entry = batch.pollFirst()) != null) {
+            consumer.accept(entry.event);
+            recordDrain(System.nanoTime() - entry.enqueuedNanos);
+        }
+        drainCount++;
+    }
+
+    private boolean removePending(ServerCommand command) {
+        Iterator<Entry> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().event.getCommand() == command) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean removeOldestSnapshot() {
+        Iterator<Entry> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            if (isSnapshot(iterator.next().event.getCommand())) {
+                iterator.remove();
+                droppedCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordDrain(long latencyNanos) {
+        lastDrainLatencyNanos = latencyNanos;
+        if (latencyNanos > maxDrainLatencyNanos) {
+            maxDrainLatencyNanos = latencyNanos;
+        }
+    }
+
+    /**
+     * Количество событий, ожидающих применения
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Время от получения последнего применённого события до его применения
+     */
+    public long getLastDrainLatencyNanos() {
+        return lastDrainLatencyNanos;
+    }
+
+    public long getMaxDrainLatencyNanos() {
+        return maxDrainLatencyNanos;
+    }
+
+    /**
+     * Сколько пачек применено
+     */
+    public long getDrainCount() {
+        return drainCount;
+    }
+
+    /**
+     * Сколько снимков заменено более новыми до применения
+     */
+    public long getSupersededCount() {
+        return supersededCount;
+    }
+
+    /**
+     * Сколько снимков отброшено из-за переполнения
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    private static final class Entry {
+        private final ServerEvent event;
+        private final long enqueuedNanos;
+
+        private Entry(ServerEvent event, long enqueuedNanos) {
+            this.event = event;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
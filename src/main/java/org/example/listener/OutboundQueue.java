@@ -0,0 +1,225 @@
+package org.example.listener;
+
+import org.example.transport.Transport;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Очередь исходящих сообщений. Поток JavaFX только кладёт сообщение в очередь,
+ * а отдельный поток записи раз в окно отправки пишет все накопленные сообщения одной операцией.
+ * Поток записи может быть виртуальным, поэтому он ждёт на ReentrantLock, а не в synchronized:
+ * Object.wait внутри synchronized занимает поток-носитель на всё время простоя
+ */
+public class OutboundQueue implements Runnable {
+
+    /**
+     * Окно накопления сообщений по умолчанию
+     */
+    public static final long DEFAULT_FLUSH_WINDOW_NANOS = 2_000_000L;
+
+    /**
+     * Команды, повторная отправка которых подряд ничего не меняет: сервер ответит тем же самым
+     */
+    private static final Set<String> IDEMPOTENT_COMMANDS = new HashSet<>(Arrays.asList(
+            "MULTIPLAY",
+            "MULTILPLAY_TOP_SCORES_LIST_BY_WINS",
+            "MULTILPLAY_TOP_SCORES_LIST_BY_TIME"
+    ));
+
+    private final Transport transport;
+    private final long flushWindowNanos;
+    private final Consumer<IOException> errorHandler;
+    private final Consumer<String> writtenHandler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final ArrayDeque<String> pending = new ArrayDeque<>();
+    private final List<String> batch = new ArrayList<>();
+    private long oldestEnqueuedNanos;
+    private boolean running = true;
+
+    private volatile int queueDepth;
+    private volatile long lastFlushLatencyNanos;
+    private volatile long maxFlushLatencyNanos;
+    private volatile long totalFlushLatencyNanos;
+    private volatile long flushCount;
+    private volatile long coalescedCount;
+
+    /**
+     * @param transport        транспорт, в который пишутся сообщения
+     * @param flushWindowNanos сколько ждать после первого сообщения пачки, прежде чем отправить её
+     * @param errorHandler     вызывается в потоке записи при ошибке отправки
+     * @param writtenHandler   вызывается в потоке записи для каждого сообщения пачки, когда пачка записана в транспорт
+     */
+    public OutboundQueue(Transport transport, long flushWindowNanos, Consumer<IOException> errorHandler,
+                         Consumer<String> writtenHandler) {
+        this.transport = transport;
+        this.flushWindowNanos = flushWindowNanos;
+        this.errorHandler = errorHandler;
+        this.writtenHandler = writtenHandler;
+    }
+
+    /**
+     * Постановка сообщения в очередь
+     *
+     * @return false, если сообщение поглощено таким же сообщением, уже стоящим в конце очереди
+     */
+    public boolean enqueue(String message) {
+        return enqueue(message, true);
+    }
+
+    /**
+     * @param coalesce false - сообщение ставится в очередь даже за таким же, например при повторной отправке после обрыва
+     */
+    public boolean enqueue(String message, boolean coalesce) {
+        lock.lock();
+        try {
+            if (coalesce && IDEMPOTENT_COMMANDS.contains(message) && message.equals(pending.peekLast())) {
+                coalescedCount++;
+                return false;
+            }
+            if (pending.isEmpty()) {
+                oldestEnqueuedNanos = System.nanoTime();
+                notEmpty.signalAll();
+            }
+            pending.addLast(message);
+            queueDepth = pending.size();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Остановка потока записи, неотправленные сообщения отбрасываются
+     */
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            pending.clear();
+            queueDepth = 0;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            long batchStart;
+            lock.lock();
+            try {
+                while (running && pending.isEmpty()) {
+                    notEmpty.await();
+                }
+                if (!running) {
+                    return;
+                }
+                batchStart = oldestEnqueuedNanos;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            long flushAt = batchStart + flushWindowNanos;
+            long delay;
+            while ((delay = flushAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(delay);
+            }
+
+            lock.lock();
+            try {
+                batch.addAll(pending);
+                pending.clear();
+                queueDepth = 0;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                for (int i = 0; i < batch.size(); i++) {
+                    transport.send(batch.get(i));
+                }
+                transport.flush();
+            } catch (IOException e) {
+                batch.clear();
+                if (isRunning()) {
+                    errorHandler.accept(e);
+                }
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                writtenHandler.accept(batch.get(i));
+            }
+            batch.clear();
+
+            recordFlush(System.nanoTime() - batchStart);
+        }
+    }
+
+    private boolean isRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordFlush(long latencyNanos) {
+        lastFlushLatencyNanos = latencyNanos;
+        if (latencyNanos > maxFlushLatencyNanos) {
+            maxFlushLatencyNanos = latencyNanos;
+        }
+        totalFlushLatencyNanos += latencyNanos;
+        flushCount++;
+    }
+
+    /**
+     * Количество сообщений, ожидающих отправки
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Время от постановки первого сообщения пачки в очередь до её отправки, для последней пачки
+     */
+    public long getLastFlushLatencyNanos() {
+        return lastFlushLatencyNanos;
+    }
+
+    public long getMaxFlushLatencyNanos() {
+        return maxFlushLatencyNanos;
+    }
+
+    public long getAverageFlushLatencyNanos() {
+        long count = flushCount;
+        return count == 0 ? 0 : totalFlushLatencyNanos / count;
+    }
+
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Количество сообщений, поглощённых повторами
+     */
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+}
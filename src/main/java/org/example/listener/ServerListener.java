@@ -1,96 +1,263 @@
 package org.example.listener;
 
-import javafx.application.Platform;
-import org.example.client.Client;
+import org.example.concurrent.ClientExecutors;
+import org.example.event.ServerCommand;
+import org.example.event.ServerEvent;
+import org.example.event.ServerEventDecoder;
+import org.example.logging.ProtocolLog;
+import org.example.metrics.ClientMetrics;
+import org.example.metrics.RequestTracker;
+import org.example.session.SessionListener;
+import org.example.transport.NioEventLoop;
+import org.example.transport.NioTransport;
+import org.example.transport.SocketTransport;
+import org.example.transport.Transport;
+import org.example.transport.TransportListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SocketChannel;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
- * Обработчик и отправитель сообщений серверу
+ * Обработчик и отправитель сообщений серверу.
+ * Не зависит от JavaFX: разобранные сообщения передаются подписчику в сетевом потоке
  */
-public class ServerListener implements Runnable {
-    private Logger logger = LoggerFactory.getLogger(ServerListener.class);
-    private BufferedReader input;
-    private Socket socket;
-    private PrintWriter output;
-    private Client client;
+public class ServerListener implements Runnable, TransportListener {
+    private static final Logger logger = LoggerFactory.getLogger(ServerListener.class);
+    private Transport transport;
+    private OutboundQueue outboundQueue;
+    private final ServerEventDecoder decoder = new ServerEventDecoder();
+    private final ProtocolLog protocolLog = new ProtocolLog();
+    private final ClientMetrics metrics = ClientMetrics.global();
+    private final RequestTracker requestTracker = new RequestTracker(metrics);
+    private final SessionListener listener;
+    private final Heartbeat heartbeat;
 
-    public ServerListener(Socket socket, Client client) {
-        this.client = client;
+    /**
+     * Подписчик узнаёт о потере соединения один раз, чем бы она ни была вызвана
+     */
+    private final AtomicBoolean connectionLost = new AtomicBoolean();
+
+    /**
+     * Блокирующий транспорт: {@link #run()} читает сообщения, пока соединение открыто.
+     * Если включены heartbeat-сообщения и сервер ответил на PING, чтение ограничено тем же таймаутом,
+     * что и молчание сервера
+     */
+    public ServerListener(Socket socket, SessionListener listener) {
+        this.listener = listener;
+        this.heartbeat = createHeartbeat();
 
         try {
-            this.input = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-            this.output = new PrintWriter(socket.getOutputStream(), true);
-            this.socket = socket;
-            logger.info("Потоки ввода/вывода с сервером " + socket.getInetAddress() + " успешно открыты");
+            this.transport = new SocketTransport(socket);
+            this.outboundQueue = createOutboundQueue(transport);
+            logger.info("Потоки ввода/вывода с сервером {} успешно открыты", transport.getRemoteAddress());
         } catch (IOException e) {
-            logger.info("Произошла ошибка" + e.getMessage() + " при открытии потока ввода/вывода с сервером " + socket.getInetAddress());
-            Platform.runLater(client::handleServerError);
-            closeConnection();
+            logger.info("Произошла ошибка {} при открытии потока ввода/вывода с сервером {}", e.getMessage(), socket.getInetAddress());
+            connectionLost();
+            closeSocket(socket);
         }
     }
 
+    /**
+     * Неблокирующий транспорт: {@link #run()} регистрирует канал в цикле событий и сразу завершается
+     */
+    public ServerListener(SocketChannel channel, NioEventLoop eventLoop, SessionListener listener) {
+        this.listener = listener;
+        this.heartbeat = createHeartbeat();
+
+        try {
+            this.transport = new NioTransport(channel, eventLoop);
+            this.outboundQueue = createOutboundQueue(transport);
+            logger.info("Канал с сервером {} успешно открыт", transport.getRemoteAddress());
+        } catch (IOException e) {
+            logger.info("Произошла ошибка {} при настройке канала с сервером", e.getMessage());
+            connectionLost();
+            closeChannel(channel);
+        }
+    }
+
+    public ServerListener(Transport transport, SessionListener listener) {
+        this.transport = transport;
+        this.outboundQueue = createOutboundQueue(transport);
+        this.listener = listener;
+        this.heartbeat = createHeartbeat();
+    }
+
+    private OutboundQueue createOutboundQueue(Transport transport) {
+        return new OutboundQueue(transport, OutboundQueue.DEFAULT_FLUSH_WINDOW_NANOS, this::onError,
+                message -> protocolLog.sent(message, transport.getRemoteAddress()));
+    }
+
+    /**
+     * @return null, если heartbeat-сообщения отключены (сервер не поддерживает PING)
+     */
+    private Heartbeat createHeartbeat() {
+        if (!Heartbeat.isEnabled()) {
+            return null;
+        }
+        return new Heartbeat(this::sendMessage, this::onHeartbeatTimeout, Heartbeat.intervalMillis(), Heartbeat.timeoutMillis());
+    }
+
 
     @Override
     public void run() {
-        try {
-            while (true) {
-                String response = input.readLine();
-                logger.info("Получено сообщение " + response + " от сервера " + socket.getInetAddress());
-
-
-
-                if (Objects.isNull(response)) {
-                    closeConnection();
-                    Platform.runLater(client::handleServerError);
-                    break;
-                } else {
-                    Platform.runLater(() -> client.handleServerResponse(response));
-                    if(response.equals("DISCONNECT_ACK")){
-                        closeConnection();
-                        break;
-                    }
-                }
+        if (Objects.nonNull(transport)) {
+            ClientExecutors.io().execute(outboundQueue);
+            if (Objects.nonNull(heartbeat)) {
+                heartbeat.start();
             }
-        } catch (IOException ex) {
-            logger.info("Произошла ошибка при работе с сервером " + socket.getInetAddress());
-            Platform.runLater(client::handleServerError);
+
+            transport.start(this);
+        }
+    }
+
+    /**
+     * Сообщение разбирается здесь, в сетевом потоке, подписчику уходит готовое событие
+     */
+    @Override
+    public void onMessage(String response) {
+        long receivedNanos = System.nanoTime();
+        if (Objects.nonNull(heartbeat)) {
+            heartbeat.messageReceived(receivedNanos);
+        }
+        protocolLog.received(response, transport.getRemoteAddress());
+
+        ServerEvent event = decoder.decode(response);
+        if (Objects.isNull(event)) {
+            logger.info("Сообщение {} не распознано", response);
+            if (!isService(response)) {
+                // Сервер посчитал и это сообщение, счёт для восстановления сеанса не должен отстать
+                listener.onUnrecognized(response);
+            }
+            return;
+        }
+        metrics.recordParse(event.getCommand(), System.nanoTime() - receivedNanos);
+        requestTracker.received(event.getCommand(), receivedNanos);
+        if (event.getCommand() == ServerCommand.PONG) {
+            if (Objects.nonNull(heartbeat) && heartbeat.pongReceived()) {
+                armReadTimeout();
+            }
+            return;
+        }
+
+        listener.onEvent(event);
+        if (event.getCommand() == ServerCommand.DISCONNECT_ACK) {
             closeConnection();
         }
     }
 
-    public void sendMessage(String message) {
-        if (Objects.nonNull(output)) {
-            output.println(message);
-            logger.info("Отправлено сообщение " + message + " серверу " + socket.getInetAddress());
-        } else {
+    /**
+     * Сервер поддерживает PING: с этого момента его долгое молчание означает обрыв, и чтение сокета не ждёт бесконечно
+     */
+    private void armReadTimeout() {
+        try {
+            transport.setReadTimeout((int) Heartbeat.timeoutMillis());
+        } catch (IOException e) {
+            logger.info("Не удалось задать таймаут чтения для сервера {}: {}", transport.getRemoteAddress(), e.getMessage());
+        }
+    }
+
+    /**
+     * Служебные сообщения сервер не считает при восстановлении сеанса
+     */
+    private static boolean isService(String message) {
+        return message.startsWith("PONG") || message.startsWith("RESUME_");
+    }
+
+    @Override
+    public void onClosed() {
+        closeConnection();
+        connectionLost();
+    }
+
+    @Override
+    public void onError(IOException e) {
+        logger.info("Произошла ошибка {} при работе с сервером {}", e.getMessage(), transport.getRemoteAddress());
+        connectionLost();
+        closeConnection();
+    }
+
+    /**
+     * Сервер не присылал ничего дольше таймаута, вызывается в потоке планировщика
+     */
+    private void onHeartbeatTimeout() {
+        onError(new SocketTimeoutException("Сервер не отвечает дольше " + Heartbeat.timeoutMillis() + " мс"));
+    }
+
+    private void connectionLost() {
+        if (connectionLost.compareAndSet(false, true)) {
+            listener.onConnectionLost();
+        }
+    }
+
+    /**
+     * @return false, если сообщение не отправлено: поглощено таким же сообщением в очереди или поток вывода не открыт
+     */
+    public boolean sendMessage(String message) {
+        return send(message, true);
+    }
+
+    /**
+     * Повторная отправка после восстановления сеанса: сообщение не объединяется с такими же в очереди,
+     * иначе сервер получит меньше сообщений, чем клиент насчитал
+     */
+    public boolean resendMessage(String message) {
+        return send(message, false);
+    }
+
+    private boolean send(String message, boolean coalesce) {
+        if (Objects.isNull(outboundQueue)) {
             logger.info("Попытка отправить сообщение, когда поток вывода не инициализирован");
-            Platform.runLater(client::handleServerError);
-            closeConnection();
+            connectionLost();
+            return false;
         }
+        long sentNanos = System.nanoTime();
+        requestTracker.sent(message, sentNanos);
+        if (!outboundQueue.enqueue(message, coalesce)) {
+            requestTracker.withdrawn(message, sentNanos);
+            logger.debug("Сообщение {} объединено с таким же сообщением в очереди", message);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Очередь исходящих сообщений, по ней видно, не упирается ли клиент в канал связи
+     */
+    public OutboundQueue getOutboundQueue() {
+        return outboundQueue;
     }
 
     public void closeConnection() {
-        if (Objects.nonNull(socket) && !socket.isClosed()) {
-            try {
-                socket.close();
-                logger.info("Сокет с сервером " + socket.getInetAddress() + " закрыт");
-                input.close();
-                logger.info("Поток ввода с сервером " + socket.getInetAddress() + " закрыт");
-                output.close();
-                logger.info("Поток вывода с сервером " + socket.getInetAddress() + " закрыт");
-            } catch (IOException e) {
-                logger.info("Произошла ошибка при закрытии соединения");
-            }
+        if (Objects.nonNull(heartbeat)) {
+            heartbeat.stop();
+        }
+        if (Objects.nonNull(transport)) {
+            outboundQueue.stop();
+            transport.close();
+            logger.info("Соединение с сервером {} закрыто", transport.getRemoteAddress());
+        }
+    }
+
+    private void closeSocket(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.info("Произошла ошибка при закрытии соединения");
+        }
+    }
 
+    private void closeChannel(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.info("Произошла ошибка при закрытии соединения");
         }
     }
 
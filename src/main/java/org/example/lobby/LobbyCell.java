@@ -0,0 +1,82 @@
+package org.example.lobby;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import org.example.model.Lobby;
+
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Ячейка списка лобби. ListView создаёт ячейки только для видимых строк и переиспользует их при прокрутке,
+ * поэтому узлы строятся один раз, а при смене лобби меняется только текст
+ */
+public class LobbyCell extends ListCell<Lobby> {
+    private final HBox lobbyBox = new HBox(10);
+    private final Label nameLabel = new Label();
+    private final Label playersLabel = new Label();
+    private final Label nameOfPlayersLabel = new Label();
+    private final Label startGameLabel = new Label();
+
+    /**
+     * @param onSelect вызывается с id лобби при нажатии «Выбрать»
+     */
+    public LobbyCell(IntConsumer onSelect) {
+        lobbyBox.setAlignment(Pos.CENTER_LEFT);
+        lobbyBox.setPadding(new Insets(10));
+
+        Label iconLabel = new Label("\uD83C\uDFAE");
+        VBox infoBox = new VBox(5, nameOfPlayersLabel, nameLabel, playersLabel, startGameLabel);
+        // Пустая строка с именами не занимает места
+        nameOfPlayersLabel.managedProperty().bind(nameOfPlayersLabel.visibleProperty());
+
+        Button selectButton = new Button("Выбрать");
+        selectButton.setOnAction(e -> {
+            Lobby lobby = getItem();
+            if (Objects.nonNull(lobby)) {
+                onSelect.accept(lobby.getId());
+            }
+        });
+
+        lobbyBox.getChildren().addAll(iconLabel, infoBox, selectButton);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(Lobby lobby, boolean empty) {
+        super.updateItem(lobby, empty);
+        if (empty || Objects.isNull(lobby)) {
+            setGraphic(null);
+            return;
+        }
+
+        nameLabel.setText("Название лобби: " + lobby.getNameOfLobby());
+        playersLabel.setText("Количество игроков: " + lobby.getCountOfPlayersInLobby() + "/2");
+        String nameOfPlayers = nameOfPlayers(lobby);
+        nameOfPlayersLabel.setVisible(Objects.nonNull(nameOfPlayers));
+        nameOfPlayersLabel.setText(nameOfPlayers);
+        startGameLabel.setText(lobby.isStartingGame() ? "Игра идёт" : "Игра не началась");
+        setGraphic(lobbyBox);
+    }
+
+    /**
+     * Имена игроков в лобби, null - лобби пустое
+     */
+    private static String nameOfPlayers(Lobby lobby) {
+        if (Objects.isNull(lobby.getPlayer1()) && Objects.isNull(lobby.getPlayer2())) {
+            return null;
+        } else if (Objects.isNull(lobby.getPlayer1())) {
+            return "Игроки: " + lobby.getPlayer2();
+        } else if (Objects.isNull(lobby.getPlayer2())) {
+            return "Игроки: " + lobby.getPlayer1();
+        } else {
+            return "Игроки: " + lobby.getPlayer1() + ", " + lobby.getPlayer2();
+        }
+    }
+}
@@ -0,0 +1,534 @@
+package org.example.lobby;
+
+import org.example.model.Lobby;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Индекс лобби на клиенте для поиска, фильтров и быстрой игры. Обновляется по одному лобби,
+ * как приходят полные списки и изменения от сервера, поэтому запрос не перебирает весь список:
+ * лобби разложены по числу свободных мест и идущей игре, имена игроков лежат в отсортированном словаре
+ * для поиска по началу имени, названия - в словаре триграмм для поиска по подстроке.
+ * Методы вызываются в одном потоке (для клиента - в потоке JavaFX)
+ */
+public class LobbyIndex {
+
+    /**
+     * Мест в лобби
+     */
+    public static final int CAPACITY = 2;
+
+    /**
+     * Длина кусочка названия в словаре подстрок. Более короткие строки ищутся перебором
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * Кандидаты больше этой доли всех лобби не используются: перебор всех лобби по порядку не требует ни
+     * сборки набора, ни сортировки
+     */
+    private static final int CANDIDATE_DIVISOR = 4;
+
+    /**
+     * Лобби по id в порядке появления: обновление лобби не меняет его места
+     */
+    private final Map<Integer, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * id лобби по [число свободных мест][идёт игра]
+     */
+    private final List<List<NavigableSet<Integer>>> buckets = new ArrayList<>(CAPACITY + 1);
+
+    /**
+     * id лобби по имени игрока в нижнем регистре
+     */
+    private final TreeMap<String, Set<Integer>> players = new TreeMap<>();
+
+    /**
+     * id лобби по триграмме названия в нижнем регистре
+     */
+    private final Map<String, Set<Integer>> grams = new HashMap<>();
+
+    private long nextSequence;
+
+    public LobbyIndex() {
+        for (int free = 0; free <= CAPACITY; free++) {
+            List<NavigableSet<Integer>> byStarting = new ArrayList<>(2);
+            byStarting.add(new TreeSet<>());
+            byStarting.add(new TreeSet<>());
+            buckets.add(byStarting);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Optional<Lobby> get(int id) {
+        Entry entry = entries.get(id);
+        return Objects.isNull(entry) ? Optional.empty() : Optional.of(entry.lobby);
+    }
+
+    /**
+     * Все лобби в порядке появления
+     */
+    public List<Lobby> all() {
+        List<Lobby> result = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            result.add(entry.lobby);
+        }
+        return result;
+    }
+
+    /**
+     * Полный список от сервера: исчезнувшие лобби удаляются, остальные добавляются или обновляются
+     *
+     * @return id удалённых, добавленных и изменившихся лобби
+     */
+    public Set<Integer> applySnapshot(List<Lobby> lobbies) {
+        Set<Integer> present = new HashSet<>(lobbies.size() * 2);
+        for (Lobby lobby : lobbies) {
+            present.add(lobby.getId());
+        }
+
+        List<Integer> removed = new ArrayList<>();
+        for (Integer id : entries.keySet()) {
+            if (!present.contains(id)) {
+                removed.add(id);
+            }
+        }
+        Set<Integer> changed = new LinkedHashSet<>(removed);
+        for (Integer id : removed) {
+            remove(id);
+        }
+        changed.addAll(putAll(lobbies));
+        return changed;
+    }
+
+    /**
+     * @return id добавленных и изменившихся лобби
+     */
+    public Set<Integer> putAll(List<Lobby> lobbies) {
+        Set<Integer> changed = new LinkedHashSet<>();
+        for (Lobby lobby : lobbies) {
+            if (put(lobby)) {
+                changed.add(lobby.getId());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Новое или изменившееся лобби, переиндексируются только изменившиеся поля
+     *
+     * @return false, если лобби не изменилось
+     */
+    public boolean put(Lobby lobby) {
+        Entry old = entries.get(lobby.getId());
+        if (Objects.nonNull(old) && old.lobby.equals(lobby)) {
+            return false;
+        }
+
+        Entry entry = new Entry(lobby, Objects.isNull(old) ? nextSequence++ : old.sequence);
+        if (Objects.nonNull(old)) {
+            bucket(old).remove(old.id());
+            if (!Objects.equals(old.name, entry.name)) {
+                unindexName(old);
+            }
+            if (!Objects.equals(old.player1, entry.player1) || !Objects.equals(old.player2, entry.player2)) {
+                unindexPlayers(old);
+            }
+        }
+
+        bucket(entry).add(entry.id());
+        if (Objects.isNull(old) || !Objects.equals(old.name, entry.name)) {
+            indexName(entry);
+        }
+        if (Objects.isNull(old) || !Objects.equals(old.player1, entry.player1) || !Objects.equals(old.player2, entry.player2)) {
+            indexPlayers(entry);
+        }
+        entries.put(entry.id(), entry);
+        return true;
+    }
+
+    /**
+     * @return false, если такого лобби нет
+     */
+    public boolean remove(int id) {
+        Entry entry = entries.remove(id);
+        if (Objects.isNull(entry)) {
+            return false;
+        }
+        bucket(entry).remove(id);
+        unindexName(entry);
+        unindexPlayers(entry);
+        return true;
+    }
+
+    public void clear() {
+        entries.clear();
+        players.clear();
+        grams.clear();
+        for (List<NavigableSet<Integer>> byStarting : buckets) {
+            for (NavigableSet<Integer> bucket : byStarting) {
+                bucket.clear();
+            }
+        }
+    }
+
+    /**
+     * Лобби для быстрой игры: сначала то, где уже ждёт соперник, затем пустое; игра в нём не идёт.
+     * Среди равных - с меньшим id
+     */
+    public Optional<Lobby> quickJoin() {
+        for (int free = 1; free <= CAPACITY; free++) {
+            NavigableSet<Integer> bucket = buckets.get(free).get(0);
+            if (!bucket.isEmpty()) {
+                return Optional.of(entries.get(bucket.first()).lobby);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Подходит ли лобби под запрос, false - такого лобби нет
+     */
+    public boolean matches(int id, LobbyQuery query) {
+        Entry entry = entries.get(id);
+        return Objects.nonNull(entry) && matches(entry, query);
+    }
+
+    /**
+     * Порядок запроса для лобби из индекса, тот же, что у {@link #find}
+     */
+    public Comparator<Lobby> order(LobbyQuery.Order order) {
+        Comparator<Lobby> arrival = Comparator.comparingLong(this::sequence);
+        switch (order) {
+            case NAME:
+                return Comparator.comparing((Lobby lobby) -> nameKey(lobby.getNameOfLobby())).thenComparing(arrival);
+            case MOST_PLAYERS:
+                return Comparator.comparingInt((Lobby lobby) -> playersRank(freeSlots(lobby))).thenComparing(arrival);
+            default:
+                return arrival;
+        }
+    }
+
+    private long sequence(Lobby lobby) {
+        Entry entry = entries.get(lobby.getId());
+        return Objects.isNull(entry) ? Long.MAX_VALUE : entry.sequence;
+    }
+
+    /**
+     * Лобби, подходящие под запрос, в его порядке. Перебираются только кандидаты из самого узкого индекса
+     */
+    public List<Lobby> find(LobbyQuery query) {
+        Collection<Integer> candidates = candidates(query);
+
+        List<Entry> matched = new ArrayList<>();
+        if (Objects.isNull(candidates)) {
+            for (Entry entry : entries.values()) {
+                if (matches(entry, query)) {
+                    matched.add(entry);
+                }
+            }
+        } else {
+            for (Integer id : candidates) {
+                Entry entry = entries.get(id);
+                if (matches(entry, query)) {
+                    matched.add(entry);
+                }
+            }
+        }
+
+        // Полный перебор идёт в порядке появления, его сортировать не нужно
+        boolean sorted = Objects.isNull(candidates) && query.getOrder() == LobbyQuery.Order.ARRIVAL;
+        List<Entry> ordered = sorted ? head(matched, query.getLimit()) : top(matched, comparator(query.getOrder()), query.getLimit());
+
+        List<Lobby> result = new ArrayList<>(ordered.size());
+        for (Entry entry : ordered) {
+            result.add(entry.lobby);
+        }
+        return result;
+    }
+
+    /**
+     * Самый узкий набор кандидатов, null - перебирать все лобби
+     */
+    private Collection<Integer> candidates(LobbyQuery query) {
+        int max = entries.size() / CANDIDATE_DIVISOR;
+        Collection<Integer> best = null;
+
+        if (Objects.nonNull(query.getPlayerPrefix())) {
+            best = narrower(best, playersByPrefix(query.getPlayerPrefix(), max), max);
+        }
+        if (Objects.nonNull(query.getNameContains())) {
+            best = narrower(best, namesContaining(query.getNameContains()), max);
+        }
+        if (Objects.nonNull(query.getText())) {
+            best = narrower(best, nameOrPlayer(query.getText(), max), max);
+        }
+        if (query.getMinFreeSlots() > 0 || Objects.nonNull(query.getStartingGame())) {
+            best = narrower(best, bucketsFor(query, max), max);
+        }
+        return best;
+    }
+
+    private static Collection<Integer> narrower(Collection<Integer> current, Collection<Integer> candidate, int max) {
+        if (Objects.isNull(candidate) || candidate.size() > max) {
+            return current;
+        }
+        return Objects.isNull(current) || candidate.size() < current.size() ? candidate : current;
+    }
+
+    /**
+     * Лобби с игроком, имя которого начинается с prefix, null - таких больше max
+     */
+    private Set<Integer> playersByPrefix(String prefix, int max) {
+        Set<Integer> ids = new HashSet<>();
+        for (Set<Integer> byPlayer : players.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            ids.addAll(byPlayer);
+            if (ids.size() > max) {
+                return null;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Кандидаты для строки поиска: подстрока названия или начало имени игрока, null - их слишком много
+     */
+    private Set<Integer> nameOrPlayer(String text, int max) {
+        Collection<Integer> byName = namesContaining(text);
+        if (Objects.isNull(byName) || byName.size() > max) {
+            return null;
+        }
+        Set<Integer> byPlayer = playersByPrefix(text, max - byName.size());
+        if (Objects.isNull(byPlayer)) {
+            return null;
+        }
+        byPlayer.addAll(byName);
+        return byPlayer;
+    }
+
+    /**
+     * Лобби, в названии которых есть все триграммы подстроки, берётся самая редкая.
+     * null - подстрока короче триграммы
+     */
+    private Collection<Integer> namesContaining(String part) {
+        if (part.length() < GRAM_LENGTH) {
+            return null;
+        }
+        Collection<Integer> rarest = null;
+        for (int i = 0; i + GRAM_LENGTH <= part.length(); i++) {
+            Set<Integer> ids = grams.get(part.substring(i, i + GRAM_LENGTH));
+            if (Objects.isNull(ids)) {
+                return Collections.emptySet();
+            }
+            if (Objects.isNull(rarest) || ids.size() < rarest.size()) {
+                rarest = ids;
+            }
+        }
+        return rarest;
+    }
+
+    /**
+     * Лобби из подходящих корзин, null - их больше max
+     */
+    private Collection<Integer> bucketsFor(LobbyQuery query, int max) {
+        List<NavigableSet<Integer>> matching = new ArrayList<>();
+        int total = 0;
+        for (int free = Math.max(query.getMinFreeSlots(), 0); free <= CAPACITY; free++) {
+            for (int starting = 0; starting < 2; starting++) {
+                if (Objects.isNull(query.getStartingGame()) || query.getStartingGame() == (starting == 1)) {
+                    matching.add(buckets.get(free).get(starting));
+                    total += buckets.get(free).get(starting).size();
+                }
+            }
+        }
+        if (total > max) {
+            return null;
+        }
+
+        List<Integer> ids = new ArrayList<>(total);
+        for (NavigableSet<Integer> bucket : matching) {
+            ids.addAll(bucket);
+        }
+        return ids;
+    }
+
+    private static boolean matches(Entry entry, LobbyQuery query) {
+        if (entry.freeSlots < query.getMinFreeSlots()) {
+            return false;
+        }
+        if (Objects.nonNull(query.getStartingGame()) && query.getStartingGame() != entry.lobby.isStartingGame()) {
+            return false;
+        }
+        if (Objects.nonNull(query.getPlayerPrefix()) && !entry.hasPlayerStartingWith(query.getPlayerPrefix())) {
+            return false;
+        }
+        if (Objects.nonNull(query.getNameContains()) && !entry.nameContains(query.getNameContains())) {
+            return false;
+        }
+        return Objects.isNull(query.getText())
+                || entry.nameContains(query.getText()) || entry.hasPlayerStartingWith(query.getText());
+    }
+
+    private static List<Entry> head(List<Entry> entries, int limit) {
+        return entries.size() <= limit ? entries : entries.subList(0, limit);
+    }
+
+    /**
+     * Первые limit лобби по порядку: при небольшом лимите сортируется не весь результат, а куча из limit элементов
+     */
+    private static List<Entry> top(List<Entry> entries, Comparator<Entry> order, int limit) {
+        if (entries.size() <= limit) {
+            entries.sort(order);
+            return entries;
+        }
+
+        PriorityQueue<Entry> heap = new PriorityQueue<>(limit, order.reversed());
+        for (Entry entry : entries) {
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (order.compare(entry, heap.peek()) < 0) {
+                // Вершина кучи - худший из отобранных, его вытесняет только лобби раньше по порядку
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        List<Entry> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    private static Comparator<Entry> comparator(LobbyQuery.Order order) {
+        Comparator<Entry> arrival = Comparator.comparingLong(entry -> entry.sequence);
+        switch (order) {
+            case NAME:
+                return Comparator.comparing((Entry entry) -> entry.name).thenComparing(arrival);
+            case MOST_PLAYERS:
+                return Comparator.comparingInt((Entry entry) -> playersRank(entry.freeSlots)).thenComparing(arrival);
+            default:
+                return arrival;
+        }
+    }
+
+    /**
+     * Сначала лобби, где ждёт соперник, затем пустые, полные в конце: в них не войти
+     */
+    private static int playersRank(int freeSlots) {
+        return freeSlots == 0 ? CAPACITY : freeSlots - 1;
+    }
+
+    private static int freeSlots(Lobby lobby) {
+        return Math.max(0, Math.min(CAPACITY, CAPACITY - lobby.getCountOfPlayersInLobby()));
+    }
+
+    private static String nameKey(String name) {
+        return Objects.isNull(name) ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private NavigableSet<Integer> bucket(Entry entry) {
+        return buckets.get(entry.freeSlots).get(entry.lobby.isStartingGame() ? 1 : 0);
+    }
+
+    private void indexName(Entry entry) {
+        for (String gram : gramsOf(entry.name)) {
+            grams.computeIfAbsent(gram, key -> new HashSet<>()).add(entry.id());
+        }
+    }
+
+    private void unindexName(Entry entry) {
+        for (String gram : gramsOf(entry.name)) {
+            removeId(grams, gram, entry.id());
+        }
+    }
+
+    private void indexPlayers(Entry entry) {
+        if (Objects.nonNull(entry.player1)) {
+            players.computeIfAbsent(entry.player1, key -> new HashSet<>()).add(entry.id());
+        }
+        if (Objects.nonNull(entry.player2)) {
+            players.computeIfAbsent(entry.player2, key -> new HashSet<>()).add(entry.id());
+        }
+    }
+
+    private void unindexPlayers(Entry entry) {
+        if (Objects.nonNull(entry.player1)) {
+            removeId(players, entry.player1, entry.id());
+        }
+        if (Objects.nonNull(entry.player2)) {
+            removeId(players, entry.player2, entry.id());
+        }
+    }
+
+    private static void removeId(Map<String, Set<Integer>> index, String key, int id) {
+        Set<Integer> ids = index.get(key);
+        if (Objects.nonNull(ids) && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static Set<String> gramsOf(String name) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            result.add(name.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+    private static String lowerCase(String value) {
+        return Objects.isNull(value) ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Лобби с заранее приведёнными к нижнему регистру строками
+     */
+    private static final class Entry {
+        private final Lobby lobby;
+        private final long sequence;
+        private final String name;
+        private final String player1;
+        private final String player2;
+        private final int freeSlots;
+
+        private Entry(Lobby lobby, long sequence) {
+            this.lobby = lobby;
+            this.sequence = sequence;
+            this.name = nameKey(lobby.getNameOfLobby());
+            this.player1 = lowerCase(lobby.getPlayer1());
+            this.player2 = lowerCase(lobby.getPlayer2());
+            this.freeSlots = freeSlots(lobby);
+        }
+
+        private int id() {
+            return lobby.getId();
+        }
+
+        private boolean nameContains(String part) {
+            return name.contains(part);
+        }
+
+        private boolean hasPlayerStartingWith(String prefix) {
+            return (Objects.nonNull(player1) && player1.startsWith(prefix))
+                    || (Objects.nonNull(player2) && player2.startsWith(prefix));
+        }
+    }
+}
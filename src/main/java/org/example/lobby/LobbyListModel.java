@@ -0,0 +1,273 @@
+package org.example.lobby;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.example.model.Lobby;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Список лобби для ListView. Изменения применяются на месте: позиция каждого лобби хранится по id,
+ * изменившееся лобби - одна замена элемента, ячейки неизменившихся лобби не перерисовываются.
+ * Все лобби хранятся в {@link LobbyIndex}; пока задан фильтр, в списке только подходящие лобби в порядке запроса,
+ * и изменение лобби так же вставляет, заменяет или убирает одну строку.
+ * Методы вызываются в потоке JavaFX
+ */
+public class LobbyListModel {
+
+    /**
+     * Если меняется больше этой доли списка, список заменяется одним изменением вместо множества мелких
+     */
+    private static final int BULK_REPLACE_DIVISOR = 4;
+
+    private final ObservableList<Lobby> items = FXCollections.observableArrayList();
+    private final Map<Integer, Integer> positions = new HashMap<>();
+    private final LobbyIndex index = new LobbyIndex();
+    private LobbyQuery query = LobbyQuery.ALL;
+
+    public ObservableList<Lobby> getItems() {
+        return items;
+    }
+
+    /**
+     * Все лобби, а не только показанные
+     */
+    public LobbyIndex getIndex() {
+        return index;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public LobbyQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Фильтр и порядок списка. Без фильтра список снова обновляется на месте
+     */
+    public void setQuery(LobbyQuery query) {
+        this.query = query;
+        if (!query.isAll()) {
+            positions.clear();
+            refresh();
+            return;
+        }
+
+        List<Lobby> all = index.all();
+        positions.clear();
+        for (int i = 0; i < all.size(); i++) {
+            positions.put(all.get(i).getId(), i);
+        }
+        if (!items.equals(all)) {
+            items.setAll(all);
+        }
+    }
+
+    /**
+     * Полный список от сервера: исчезнувшие лобби удаляются, изменившиеся заменяются, новые добавляются в конец
+     */
+    public void applySnapshot(List<Lobby> lobbies) {
+        Set<Integer> changedIds = index.applySnapshot(lobbies);
+        if (!query.isAll()) {
+            applyFiltered(changedIds);
+            return;
+        }
+
+        Set<Integer> present = new HashSet<>(lobbies.size() * 2);
+        for (Lobby lobby : lobbies) {
+            present.add(lobby.getId());
+        }
+
+        Set<Integer> removed = new HashSet<>();
+        for (Integer id : positions.keySet()) {
+            if (!present.contains(id)) {
+                removed.add(id);
+            }
+        }
+        removeIds(removed);
+        putInPlace(lobbies);
+    }
+
+    /**
+     * Добавленные или изменившиеся лобби
+     */
+    public void putAll(List<Lobby> lobbies) {
+        Set<Integer> changedIds = index.putAll(lobbies);
+        if (query.isAll()) {
+            putInPlace(lobbies);
+        } else {
+            applyFiltered(changedIds);
+        }
+    }
+
+    private void putInPlace(List<Lobby> lobbies) {
+        List<Lobby> added = new ArrayList<>();
+        List<Integer> changedPositions = new ArrayList<>();
+        List<Lobby> changed = new ArrayList<>();
+
+        for (Lobby lobby : lobbies) {
+            Integer position = positions.get(lobby.getId());
+            if (position == null) {
+                positions.put(lobby.getId(), items.size() + added.size());
+                added.add(lobby);
+            } else if (position >= items.size()) {
+                // Лобби повторяется в одном обновлении, берётся последнее состояние
+                added.set(position - items.size(), lobby);
+            } else if (!items.get(position).equals(lobby)) {
+                changedPositions.add(position);
+                changed.add(lobby);
+            }
+        }
+
+        if (changed.size() > items.size() / BULK_REPLACE_DIVISOR) {
+            List<Lobby> merged = new ArrayList<>(items.size() + added.size());
+            merged.addAll(items);
+            for (int i = 0; i < changed.size(); i++) {
+                merged.set(changedPositions.get(i), changed.get(i));
+            }
+            merged.addAll(added);
+            items.setAll(merged);
+            return;
+        }
+
+        for (int i = 0; i < changed.size(); i++) {
+            items.set(changedPositions.get(i), changed.get(i));
+        }
+        if (!added.isEmpty()) {
+            items.addAll(added);
+        }
+    }
+
+    public void remove(int[] ids) {
+        Set<Integer> removedIds = new HashSet<>(ids.length * 2);
+        for (int id : ids) {
+            if (index.remove(id)) {
+                removedIds.add(id);
+            }
+        }
+        if (!query.isAll()) {
+            applyFiltered(removedIds);
+            return;
+        }
+
+        Set<Integer> removed = new HashSet<>(ids.length * 2);
+        for (int id : ids) {
+            if (positions.containsKey(id)) {
+                removed.add(id);
+            }
+        }
+        removeIds(removed);
+    }
+
+    public void clear() {
+        items.clear();
+        positions.clear();
+        index.clear();
+    }
+
+    /**
+     * Изменения при заданном фильтре: каждое изменившееся лобби вставляется на своё место по порядку запроса,
+     * заменяется или убирается. Если меняется большая часть списка или у запроса есть лимит
+     * (место убранного лобби занимает следующее), список заменяется результатом запроса целиком
+     */
+    private void applyFiltered(Set<Integer> changedIds) {
+        if (changedIds.isEmpty()) {
+            return;
+        }
+        if (query.getLimit() != Integer.MAX_VALUE
+                || (changedIds.size() > 1 && changedIds.size() > items.size() / BULK_REPLACE_DIVISOR)) {
+            refresh();
+            return;
+        }
+
+        // Сначала убираются неподходящие строки: порядок остальных строк сравнивается по индексу
+        for (Integer id : changedIds) {
+            if (!index.matches(id, query)) {
+                int row = rowOf(id);
+                if (row >= 0) {
+                    items.remove(row);
+                }
+            }
+        }
+
+        Comparator<Lobby> order = index.order(query.getOrder());
+        for (Integer id : changedIds) {
+            if (!index.matches(id, query)) {
+                continue;
+            }
+            Lobby lobby = index.get(id).orElseThrow(IllegalStateException::new);
+            int row = rowOf(id);
+            if (row >= 0) {
+                if (fits(row, lobby, order)) {
+                    items.set(row, lobby);
+                    continue;
+                }
+                items.remove(row);
+            }
+            items.add(insertionPoint(lobby, order), lobby);
+        }
+    }
+
+    private int rowOf(int id) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getId() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Остаётся ли порядок верным, если поставить лобби в строку row
+     */
+    private boolean fits(int row, Lobby lobby, Comparator<Lobby> order) {
+        return (row == 0 || order.compare(items.get(row - 1), lobby) <= 0)
+                && (row == items.size() - 1 || order.compare(lobby, items.get(row + 1)) <= 0);
+    }
+
+    private int insertionPoint(Lobby lobby, Comparator<Lobby> order) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (order.compare(items.get(middle), lobby) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Новый результат запроса заменяет список одним изменением, если он отличается от показанного
+     */
+    private void refresh() {
+        List<Lobby> found = index.find(query);
+        if (!items.equals(found)) {
+            items.setAll(found);
+        }
+    }
+
+    /**
+     * Одно изменение списка на все удаления, затем позиции пересчитываются
+     */
+    private void removeIds(Set<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        items.removeIf(lobby -> ids.contains(lobby.getId()));
+        positions.clear();
+        for (int i = 0; i < items.size(); i++) {
+            positions.put(items.get(i).getId(), i);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.lobby;
+
+import java.util.Locale;
+
+/**
+ * Запрос к {@link LobbyIndex}: все заданные условия должны выполняться одновременно.
+ * Строки сравниваются без учёта регистра
+ */
+public final class LobbyQuery {
+
+    /**
+     * Порядок результатов
+     */
+    public enum Order {
+        /**
+         * В порядке появления лобби на клиенте
+         */
+        ARRIVAL,
+
+        /**
+         * По названию лобби
+         */
+        NAME,
+
+        /**
+         * Сначала лобби, где уже ждёт игрок: игра в них начнётся быстрее. Затем пустые, полные в конце
+         */
+        MOST_PLAYERS
+    }
+
+    public static final LobbyQuery ALL = builder().build();
+
+    private final int minFreeSlots;
+    private final Boolean startingGame;
+    private final String playerPrefix;
+    private final String nameContains;
+    private final String text;
+    private final Order order;
+    private final int limit;
+
+    private LobbyQuery(Builder builder) {
+        this.minFreeSlots = builder.minFreeSlots;
+        this.startingGame = builder.startingGame;
+        this.playerPrefix = normalize(builder.playerPrefix);
+        this.nameContains = normalize(builder.nameContains);
+        this.text = normalize(builder.text);
+        this.order = builder.order;
+        this.limit = builder.limit;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Запрос без условий в порядке появления - весь список как есть
+     */
+    public boolean isAll() {
+        return minFreeSlots == 0 && startingGame == null && playerPrefix == null && nameContains == null
+                && text == null && order == Order.ARRIVAL && limit == Integer.MAX_VALUE;
+    }
+
+    public int getMinFreeSlots() {
+        return minFreeSlots;
+    }
+
+    /**
+     * null - неважно, идёт ли игра
+     */
+    public Boolean getStartingGame() {
+        return startingGame;
+    }
+
+    public String getPlayerPrefix() {
+        return playerPrefix;
+    }
+
+    public String getNameContains() {
+        return nameContains;
+    }
+
+    /**
+     * Строка поиска: подстрока названия лобби или начало имени игрока
+     */
+    public String getText() {
+        return text;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public static final class Builder {
+        private int minFreeSlots;
+        private Boolean startingGame;
+        private String playerPrefix;
+        private String nameContains;
+        private String text;
+        private Order order = Order.ARRIVAL;
+        private int limit = Integer.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        /**
+         * Не меньше стольких свободных мест (0-2)
+         */
+        public Builder minFreeSlots(int minFreeSlots) {
+            this.minFreeSlots = minFreeSlots;
+            return this;
+        }
+
+        public Builder startingGame(Boolean startingGame) {
+            this.startingGame = startingGame;
+            return this;
+        }
+
+        public Builder playerPrefix(String playerPrefix) {
+            this.playerPrefix = playerPrefix;
+            return this;
+        }
+
+        public Builder nameContains(String nameContains) {
+            this.nameContains = nameContains;
+            return this;
+        }
+
+        public Builder text(String text) {
+            this.text = text;
+            return this;
+        }
+
+        public Builder order(Order order) {
+            this.order = order;
+            return this;
+        }
+
+        /**
+         * Сколько результатов вернуть, лучшие по порядку
+         *
+         * @throws IllegalArgumentException limit меньше 1
+         */
+        public Builder limit(int limit) {
+            if (limit < 1) {
+                throw new IllegalArgumentException("Лимит результатов должен быть не меньше 1: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public LobbyQuery build() {
+            return new LobbyQuery(this);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.logging;
+
+import org.example.dispatcher.CommandTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Журнал сообщений протокола.
+ * Логгер {@code org.example.protocol} пишет только имя команды, частые команды пишутся выборочно.
+ * Логгер {@code org.example.protocol.trace} пишет сообщения целиком на уровне TRACE и по умолчанию выключен.
+ */
+public final class ProtocolLog {
+
+    /**
+     * Системное свойство с частотой выборки: {@code КОМАНДА=N,...}, пишется каждое N-е сообщение команды
+     */
+    public static final String SAMPLE_PROPERTY = "rally.log.sample";
+
+    /**
+     * Во время заезда клиент отправляет ход на каждое нажатие клавиши, а PING/PONG идут всё время, пока открыто соединение
+     */
+    private static final String DEFAULT_SAMPLING = "MOVE_LEFT=50,MOVE_RIGHT=50,PING=100,PONG=100";
+
+    private static final Logger logger = LoggerFactory.getLogger("org.example.protocol");
+    private static final Logger traceLogger = LoggerFactory.getLogger("org.example.protocol.trace");
+
+    private final CommandTrie<Sampler> samplers = new CommandTrie<>();
+
+    public ProtocolLog() {
+        this(System.getProperty(SAMPLE_PROPERTY, DEFAULT_SAMPLING));
+    }
+
+    /**
+     * @param sampling частота выборки в формате {@code КОМАНДА=N,...}, команды без частоты пишутся всегда
+     */
+    public ProtocolLog(String sampling) {
+        for (String entry : sampling.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator < 0) {
+                continue;
+            }
+            try {
+                String command = entry.substring(0, separator).trim();
+                int rate = Integer.parseInt(entry.substring(separator + 1).trim());
+                if (rate > 1) {
+                    samplers.put(command, new Sampler(rate));
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warn("Некорректная частота выборки {} в {}", entry, SAMPLE_PROPERTY);
+            }
+        }
+    }
+
+    /**
+     * Сообщение, полученное от сервера
+     */
+    public void received(String message, String remoteAddress) {
+        if (traceLogger.isTraceEnabled()) {
+            traceLogger.trace("<< {} {}", remoteAddress, message);
+        }
+        if (logger.isInfoEnabled() && sampled(message)) {
+            logger.info("Получена команда {} от сервера {}", command(message), remoteAddress);
+        }
+    }
+
+    /**
+     * Сообщение, записанное в соединение с сервером
+     */
+    public void sent(String message, String remoteAddress) {
+        if (traceLogger.isTraceEnabled()) {
+            traceLogger.trace(">> {} {}", remoteAddress, message);
+        }
+        if (logger.isInfoEnabled() && sampled(message)) {
+            logger.info("Отправлена команда {} серверу {}", command(message), remoteAddress);
+        }
+    }
+
+    private boolean sampled(String message) {
+        Sampler sampler = samplers.get(message, CommandTrie.tokenEnd(message));
+        return sampler == null || sampler.next();
+    }
+
+    /**
+     * Только имя команды: аргументы могут содержать пароль
+     */
+    private static String command(String message) {
+        int tokenEnd = CommandTrie.tokenEnd(message);
+        return tokenEnd == message.length() ? message : message.substring(0, tokenEnd);
+    }
+
+    private static final class Sampler {
+        private final int rate;
+        private final AtomicLong counter = new AtomicLong();
+
+        private Sampler(int rate) {
+            this.rate = rate;
+        }
+
+        private boolean next() {
+            return counter.getAndIncrement() % rate == 0;
+        }
+    }
+}
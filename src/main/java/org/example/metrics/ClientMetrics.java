@@ -0,0 +1,129 @@
+package org.example.metrics;
+
+import org.example.concurrent.ClientExecutors;
+import org.example.event.ServerCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики клиента: гистограммы задержек по именам.
+ * rtt.КОМАНДА - от постановки запроса в очередь отправки до получения ответа,
+ * parse.КОМАНДА - разбор сообщения сервера в сетевом потоке,
+ * apply.КОМАНДА - применение события в потоке JavaFX.
+ * Каждая гистограмма видна в JMX как org.example.metrics:type=Latency,name=ИМЯ
+ */
+public final class ClientMetrics {
+
+    /**
+     * Период записи сводки в журнал в секундах, 0 - не записывать
+     */
+    public static final String DUMP_PERIOD_PROPERTY = "rally.metrics.dumpSeconds";
+
+    private static final long DEFAULT_DUMP_PERIOD_SECONDS = 60;
+    private static final String JMX_DOMAIN = "org.example.metrics";
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientMetrics.class);
+    private static final ClientMetrics GLOBAL = new ClientMetrics(true);
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+    private final Map<ServerCommand, LatencyHistogram> parseHistograms = new ConcurrentHashMap<>();
+    private final Map<ServerCommand, LatencyHistogram> applyHistograms = new ConcurrentHashMap<>();
+    private final boolean registerInJmx;
+    private ScheduledFuture<?> periodicDump;
+
+    /**
+     * @param registerInJmx публиковать ли гистограммы в платформенном MBeanServer
+     */
+    public ClientMetrics(boolean registerInJmx) {
+        this.registerInJmx = registerInJmx;
+    }
+
+    /**
+     * Общие метрики приложения
+     */
+    public static ClientMetrics global() {
+        return GLOBAL;
+    }
+
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram(name);
+            histogram = histograms.putIfAbsent(name, created);
+            if (histogram == null) {
+                histogram = created;
+                register(created);
+            }
+        }
+        return histogram;
+    }
+
+    public void recordRoundTrip(String request, long nanos) {
+        histogram("rtt." + request).record(nanos);
+    }
+
+    public void recordParse(ServerCommand command, long nanos) {
+        byCommand(parseHistograms, "parse.", command).record(nanos);
+    }
+
+    public void recordApply(ServerCommand command, long nanos) {
+        byCommand(applyHistograms, "apply.", command).record(nanos);
+    }
+
+    /**
+     * Запись сводки в журнал org.example.metrics.ClientMetrics с периодом из rally.metrics.dumpSeconds
+     */
+    public synchronized void startPeriodicDump() {
+        long period = Long.getLong(DUMP_PERIOD_PROPERTY, DEFAULT_DUMP_PERIOD_SECONDS);
+        if (period <= 0 || periodicDump != null) {
+            return;
+        }
+        periodicDump = ClientExecutors.scheduler().scheduleAtFixedRate(
+                () -> logger.info("Метрики клиента:\n{}", dump()), period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Таблица по всем гистограммам, значения в миллисекундах
+     */
+    public String dump() {
+        StringBuilder table = new StringBuilder(String.format("%-48s %8s %9s %9s %9s %9s %9s%n",
+                "метрика", "кол-во", "среднее", "p50", "p99", "p99.9", "макс"));
+        for (LatencyHistogram histogram : histograms.values()) {
+            table.append(String.format("%-48s %8d %9.3f %9.3f %9.3f %9.3f %9.3f%n", histogram.getName(),
+                    histogram.getCount(), histogram.getMeanMillis(), histogram.getP50Millis(),
+                    histogram.getP99Millis(), histogram.getP999Millis(), histogram.getMaxMillis()));
+        }
+        return table.toString();
+    }
+
+    private LatencyHistogram byCommand(Map<ServerCommand, LatencyHistogram> cache, String prefix, ServerCommand command) {
+        LatencyHistogram histogram = cache.get(command);
+        if (histogram == null) {
+            histogram = histogram(prefix + command.name());
+            cache.put(command, histogram);
+        }
+        return histogram;
+    }
+
+    private void register(LatencyHistogram histogram) {
+        if (!registerInJmx) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(histogram, new ObjectName(JMX_DOMAIN + ":type=Latency,name=" + histogram.getName()));
+        } catch (JMException e) {
+            logger.info("Не удалось опубликовать метрику {} в JMX: {}", histogram.getName(), e.getMessage());
+        }
+    }
+}
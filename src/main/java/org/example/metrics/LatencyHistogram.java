@@ -0,0 +1,126 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Гистограмма задержек в наносекундах с логарифмическими корзинами, как в HdrHistogram:
+ * каждая степень двойки делится на 64 корзины, погрешность перцентилей не больше 1/64.
+ * Запись без блокировок и без выделения памяти, можно писать из любых потоков.
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Значения меньше 2 * SUB_BUCKETS хранятся точно, по корзине на значение
+     */
+    private static final int LINEAR_LIMIT = SUB_BUCKETS << 1;
+    private static final int LINEAR_EXPONENT = SUB_BUCKET_BITS + 1;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (Long.SIZE - 1 - LINEAR_EXPONENT) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+
+        long currentMax;
+        while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+            // Повтор, если максимум обновил другой поток
+        }
+    }
+
+    /**
+     * Значение, не превышаемое долей quantile записей, с точностью до корзины
+     */
+    public long valueAtQuantile(double quantile) {
+        long recorded = count.get();
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : millis(total.get() / recorded);
+    }
+
+    @Override
+    public double getP50Millis() {
+        return millis(valueAtQuantile(0.5));
+    }
+
+    @Override
+    public double getP90Millis() {
+        return millis(valueAtQuantile(0.9));
+    }
+
+    @Override
+    public double getP99Millis() {
+        return millis(valueAtQuantile(0.99));
+    }
+
+    @Override
+    public double getP999Millis() {
+        return millis(valueAtQuantile(0.999));
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return millis(max.get());
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return LINEAR_LIMIT + (exponent - LINEAR_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = LINEAR_EXPONENT + (index - LINEAR_LIMIT) / SUB_BUCKETS;
+        long subBucket = SUB_BUCKETS + (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
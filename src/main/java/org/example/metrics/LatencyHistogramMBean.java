@@ -0,0 +1,20 @@
+package org.example.metrics;
+
+/**
+ * Гистограмма задержек в JMX, значения в миллисекундах
+ */
+public interface LatencyHistogramMBean {
+    long getCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+}
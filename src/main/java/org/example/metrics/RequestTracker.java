@@ -0,0 +1,107 @@
+package org.example.metrics;
+
+import org.example.dispatcher.CommandTrie;
+import org.example.event.ServerCommand;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Сопоставление запросов одного соединения с ответами сервера.
+ * Сервер отвечает на запросы по порядку, поэтому ответ закрывает самый старый ждущий запрос своего типа
+ */
+public class RequestTracker {
+
+    /**
+     * Больше ждущих запросов одного типа не хранится: если сервер не отвечает, старые отбрасываются
+     */
+    private static final int MAX_PENDING = 64;
+
+    /**
+     * Какой запрос закрывает каждый ответ
+     */
+    private static final Map<ServerCommand, String> REQUEST_BY_RESPONSE = new EnumMap<>(ServerCommand.class);
+
+    static {
+        answers("CONNECT", ServerCommand.CONNECT_ACK);
+        answers("USER", ServerCommand.USER_ACK_CREATE, ServerCommand.USER_ACK_CHECK);
+        answers("PASS", ServerCommand.PASS_ACK_SUCCESS, ServerCommand.PASS_ACK_FAIL);
+        answers("MULTIPLAY", ServerCommand.MULTIPLAY_ACK_SUCCESS, ServerCommand.MULTIPLAY_ACK_FAIL);
+        answers("JOIN_LOBBY_ID", ServerCommand.JOIN_LOBBY_ID_ACK_SUCCESS, ServerCommand.FULL_LOBBY_ERR,
+                ServerCommand.LOBBY_START_GAME);
+        answers("MULTILPLAY_TOP_SCORES_LIST_BY_WINS", ServerCommand.MULTILPLAY_TOP_SCORES_LIST_BY_WINS);
+        answers("MULTILPLAY_TOP_SCORES_LIST_BY_TIME", ServerCommand.MULTILPLAY_TOP_SCORES_LIST_BY_TIME);
+        answers("DISCONNECT", ServerCommand.DISCONNECT_ACK);
+        answers("PING", ServerCommand.PONG);
+        answers("RESUME", ServerCommand.RESUME_ACK_SUCCESS, ServerCommand.RESUME_ACK_FAIL);
+    }
+
+    private static void answers(String request, ServerCommand... responses) {
+        for (ServerCommand response : responses) {
+            REQUEST_BY_RESPONSE.put(response, request);
+        }
+    }
+
+    private final ClientMetrics metrics;
+    private final CommandTrie<ArrayDeque<Long>> pending = new CommandTrie<>();
+
+    public RequestTracker(ClientMetrics metrics) {
+        this.metrics = metrics;
+        for (String request : REQUEST_BY_RESPONSE.values()) {
+            pending.put(request, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Запрос ставится в очередь отправки. Вызывается до постановки: иначе поток записи может отправить запрос
+     * и ответ придёт раньше, чем здесь появится время отправки
+     */
+    public void sent(String message, long nowNanos) {
+        ArrayDeque<Long> times = pending.get(message, CommandTrie.tokenEnd(message));
+        if (times == null) {
+            return;
+        }
+        synchronized (times) {
+            if (times.size() == MAX_PENDING) {
+                times.pollFirst();
+            }
+            times.addLast(nowNanos);
+        }
+    }
+
+    /**
+     * Запрос не ушёл (поглощён таким же в очереди), его время отправки убирается
+     *
+     * @param sentNanos время, переданное в {@link #sent}
+     */
+    public void withdrawn(String message, long sentNanos) {
+        ArrayDeque<Long> times = pending.get(message, CommandTrie.tokenEnd(message));
+        if (times == null) {
+            return;
+        }
+        synchronized (times) {
+            times.removeLastOccurrence(sentNanos);
+        }
+    }
+
+    /**
+     * Получен ответ сервера
+     *
+     * @param receivedNanos время получения сообщения, до его разбора
+     */
+    public void received(ServerCommand response, long receivedNanos) {
+        String request = REQUEST_BY_RESPONSE.get(response);
+        if (request == null) {
+            return;
+        }
+        ArrayDeque<Long> times = pending.get(request, request.length());
+        Long sentNanos;
+        synchronized (times) {
+            sentNanos = times.pollFirst();
+        }
+        if (sentNanos != null) {
+            metrics.recordRoundTrip(request, receivedNanos - sentNanos);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package org.example.model;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+/**
+ * Стартовое состояние игры, разбирается потоково в {@link org.example.jsonparser.JsonParser#parseGameState}
+ */
 @Getter
+@AllArgsConstructor
 public class GameState {
-    @JsonProperty("game_field")
-    private int[][] gameField;
+
+    /**
+     * Трасса из поля game_field
+     */
+    private Track track;
 }
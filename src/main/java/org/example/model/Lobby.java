@@ -1,13 +1,16 @@
 package org.example.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 
 /**
- * Класс лобби для парсинга ответа сервера
+ * Класс лобби для парсинга ответа сервера.
+ * Равенство по всем полям: по нему список лобби понимает, изменилось ли лобби с прошлого обновления
  */
 @Getter
+@EqualsAndHashCode
 public class Lobby {
 
     @JsonProperty("id")
@@ -0,0 +1,118 @@
+package org.example.model;
+
+import java.util.Arrays;
+
+/**
+ * Трасса в упакованном виде: одна клетка - один бит, строки лежат подряд в общем массиве long.
+ * Клетка с препятствием (1 в game_field) хранится установленным битом.
+ */
+public final class Track implements TrackRows {
+    private final int width;
+    private final int rowCount;
+
+    /**
+     * Количество слов long на одну строку
+     */
+    private final int stride;
+    private final long[] bits;
+
+    private Track(int width, int rowCount, int stride, long[] bits) {
+        this.width = width;
+        this.rowCount = rowCount;
+        this.stride = stride;
+        this.bits = bits;
+    }
+
+    /**
+     * Упаковка трассы из двумерного массива, все строки должны быть одной длины
+     */
+    public static Track of(int[][] gameField) {
+        Builder builder = new Builder();
+        for (int[] row : gameField) {
+            for (int cell : row) {
+                builder.addCell(cell == 1);
+            }
+            builder.endRow();
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public boolean isObstacle(int row, int lane) {
+        if (lane < 0 || lane >= width) {
+            throw new IndexOutOfBoundsException("Полоса " + lane + " вне трассы шириной " + width);
+        }
+        long word = bits[row * stride + (lane >>> 6)];
+        return (word & (1L << lane)) != 0;
+    }
+
+    /**
+     * Строка трассы целиком одним словом, без обхода клеток
+     */
+    @Override
+    public long rowBits(int row) {
+        if (width > Long.SIZE) {
+            throw new IllegalStateException("Трасса шириной " + width + " не помещается в одно слово");
+        }
+        return bits[row * stride];
+    }
+
+    /**
+     * Построение трассы по клеткам, строка за строкой. Ширину задаёт первая строка
+     */
+    public static final class Builder {
+        private long[] bits = new long[64];
+        private long[] currentRow = new long[1];
+        private int width = -1;
+        private int stride;
+        private int rowCount;
+        private int lane;
+
+        public Builder addCell(boolean obstacle) {
+            int word = lane >>> 6;
+            if (word == currentRow.length) {
+                currentRow = Arrays.copyOf(currentRow, word * 2);
+            }
+            if (obstacle) {
+                currentRow[word] |= 1L << lane;
+            }
+            lane++;
+            return this;
+        }
+
+        public Builder endRow() {
+            if (width < 0) {
+                width = lane;
+                stride = Math.max(1, (width + 63) >>> 6);
+            } else if (lane != width) {
+                throw new IllegalStateException("Строка " + rowCount + " длины " + lane + ", ожидалась длина " + width);
+            }
+
+            int offset = rowCount * stride;
+            if (offset + stride > bits.length) {
+                bits = Arrays.copyOf(bits, Math.max(bits.length * 2, offset + stride));
+            }
+            System.arraycopy(currentRow, 0, bits, offset, stride);
+            Arrays.fill(currentRow, 0, stride, 0L);
+
+            rowCount++;
+            lane = 0;
+            return this;
+        }
+
+        public Track build() {
+            int trackWidth = Math.max(width, 0);
+            return new Track(trackWidth, rowCount, Math.max(stride, 1), Arrays.copyOf(bits, rowCount * Math.max(stride, 1)));
+        }
+    }
+}
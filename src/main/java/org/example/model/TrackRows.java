@@ -0,0 +1,35 @@
+package org.example.model;
+
+/**
+ * Прямоугольный участок трассы: строки сверху вниз, полосы слева направо
+ */
+public interface TrackRows {
+
+    /**
+     * Количество полос
+     */
+    int getWidth();
+
+    /**
+     * Количество строк
+     */
+    int getRowCount();
+
+    /**
+     * Есть ли препятствие в клетке
+     */
+    boolean isObstacle(int row, int lane);
+
+    /**
+     * Битовая маска строки для трасс шириной не более 64 полос: бит lane установлен, если в клетке препятствие
+     */
+    default long rowBits(int row) {
+        long bits = 0;
+        for (int lane = 0; lane < getWidth(); lane++) {
+            if (isObstacle(row, lane)) {
+                bits |= 1L << lane;
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.serverConfig;
+
+import org.example.concurrent.ClientExecutors;
+import org.example.metrics.ClientMetrics;
+import org.example.transport.SocketProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Замер задержки до каждого сервера списка: время TCP-подключения и время CONNECT - CONNECT_ACK.
+ * Все серверы опрашиваются параллельно, пробное соединение закрывается сразу после ответа
+ */
+public class EndpointProber {
+
+    public static final String TIMEOUT_PROPERTY = "rally.probe.timeoutMillis";
+
+    private static final int DEFAULT_TIMEOUT_MILLIS = 2_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(EndpointProber.class);
+
+    /**
+     * Сначала доступные серверы по времени рукопожатия, затем недоступные в исходном порядке
+     */
+    private static final Comparator<ProbeResult> FASTEST_FIRST = Comparator
+            .comparing((ProbeResult result) -> !result.isHealthy())
+            .thenComparingLong(result -> result.isHealthy() ? result.getHandshakeNanos() : 0);
+
+    private final int timeoutMillis;
+    private final SocketProfile profile;
+
+    public EndpointProber() {
+        this(Integer.getInteger(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT_MILLIS));
+    }
+
+    /**
+     * @param timeoutMillis ограничение и на подключение, и на ожидание CONNECT_ACK
+     */
+    public EndpointProber(int timeoutMillis) {
+        this(timeoutMillis, SocketProfile.fromSystemProperties());
+    }
+
+    /**
+     * @param profile настройки пробного сокета, те же, что у игрового соединения, чтобы замер был честным
+     */
+    public EndpointProber(int timeoutMillis, SocketProfile profile) {
+        this.timeoutMillis = timeoutMillis;
+        this.profile = profile;
+    }
+
+    /**
+     * Параллельный опрос серверов
+     *
+     * @return результаты, отсортированные от самого быстрого доступного сервера
+     */
+    public List<ProbeResult> probe(List<ServerEndpoint> endpoints) {
+        List<CompletableFuture<ProbeResult>> futures = new ArrayList<>(endpoints.size());
+        for (ServerEndpoint endpoint : endpoints) {
+            futures.add(CompletableFuture.supplyAsync(() -> probe(endpoint), ClientExecutors.io()));
+        }
+
+        List<ProbeResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<ProbeResult> future : futures) {
+            results.add(future.join());
+        }
+        // Сортировка устойчива: недоступные серверы остаются в порядке списка
+        Collections.sort(results, FASTEST_FIRST);
+        return results;
+    }
+
+    /**
+     * Опрос одного сервера, выполняется в исполнителе ввода-вывода
+     */
+    public ProbeResult probe(ServerEndpoint endpoint) {
+        long start = System.nanoTime();
+        try (Socket socket = new Socket()) {
+            profile.configure(socket);
+            socket.connect(new InetSocketAddress(endpoint.getHost(), endpoint.getPort()), timeoutMillis);
+            long connected = System.nanoTime();
+
+            socket.setSoTimeout(timeoutMillis);
+            Writer output = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            output.write("CONNECT\n");
+            output.flush();
+
+            String response = input.readLine();
+            long acknowledged = System.nanoTime();
+            if (!"CONNECT_ACK".equals(response)) {
+                return ProbeResult.failed(endpoint, "вместо CONNECT_ACK получено " + response);
+            }
+
+            // Сервер не должен держать сеанс пробного соединения
+            output.write("DISCONNECT\n");
+            output.flush();
+
+            ClientMetrics metrics = ClientMetrics.global();
+            metrics.histogram("probe.connect").record(connected - start);
+            metrics.histogram("probe.handshake").record(acknowledged - start);
+            return new ProbeResult(endpoint, connected - start, acknowledged - start, null);
+        } catch (IOException e) {
+            return ProbeResult.failed(endpoint, e.getMessage());
+        }
+    }
+
+    /**
+     * Результат опроса одного сервера
+     */
+    public static final class ProbeResult {
+        private final ServerEndpoint endpoint;
+        private final long connectNanos;
+        private final long handshakeNanos;
+        private final String error;
+
+        private ProbeResult(ServerEndpoint endpoint, long connectNanos, long handshakeNanos, String error) {
+            this.endpoint = endpoint;
+            this.connectNanos = connectNanos;
+            this.handshakeNanos = handshakeNanos;
+            this.error = error;
+        }
+
+        private static ProbeResult failed(ServerEndpoint endpoint, String error) {
+            logger.debug("Сервер {} недоступен: {}", endpoint, error);
+            return new ProbeResult(endpoint, -1, -1, error);
+        }
+
+        public ServerEndpoint getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * Время установки TCP-соединения, -1 - сервер недоступен
+         */
+        public long getConnectNanos() {
+            return connectNanos;
+        }
+
+        /**
+         * Время от начала подключения до CONNECT_ACK, -1 - сервер недоступен
+         */
+        public long getHandshakeNanos() {
+            return handshakeNanos;
+        }
+
+        public boolean isHealthy() {
+            return error == null;
+        }
+
+        /**
+         * Причина недоступности, null - сервер доступен
+         */
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            if (!isHealthy()) {
+                return endpoint + " недоступен (" + error + ")";
+            }
+            return String.format("%s: подключение %.1f мс, CONNECT_ACK %.1f мс",
+                    endpoint, connectNanos / 1e6, handshakeNanos / 1e6);
+        }
+    }
+}
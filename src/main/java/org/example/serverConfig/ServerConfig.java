@@ -1,12 +1,29 @@
 package org.example.serverConfig;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
 /**
- * Класс с данными для подключения к серверу
+ * Класс с данными для подключения к серверу.
+ * Константы задают сервер по умолчанию, список серверов можно переопределить:
+ * -Drally.servers=host:port,host:port или файлом -Drally.servers.file=путь (адрес на строку, # - комментарий)
  */
 public enum ServerConfig {
     SERVER_ADDRESS("localhost"),
     SERVER_PORT("8082");
 
+    public static final String SERVERS_PROPERTY = "rally.servers";
+    public static final String SERVERS_FILE_PROPERTY = "rally.servers.file";
+
+    private static final Logger logger = LoggerFactory.getLogger(ServerConfig.class);
+
     private String value;
 
     ServerConfig(String value) {
@@ -16,4 +33,46 @@ public enum ServerConfig {
     public String getValue() {
         return value;
     }
+
+    /**
+     * Список серверов в порядке предпочтения: из системного свойства, из файла или сервер по умолчанию.
+     * Ошибка в адресе не мешает запуску: в журнал пишется причина, и используется сервер по умолчанию
+     */
+    public static List<ServerEndpoint> endpoints() {
+        String servers = System.getProperty(SERVERS_PROPERTY);
+        if (servers != null && !servers.trim().isEmpty()) {
+            try {
+                List<ServerEndpoint> endpoints = ServerEndpoint.parseList(servers);
+                if (!endpoints.isEmpty()) {
+                    return endpoints;
+                }
+                logger.info("В свойстве {} нет ни одного сервера", SERVERS_PROPERTY);
+            } catch (IllegalArgumentException e) {
+                logger.info("Не удалось разобрать список серверов {}: {}", servers, e.getMessage());
+            }
+            return defaultEndpoints();
+        }
+
+        String file = System.getProperty(SERVERS_FILE_PROPERTY);
+        if (file != null) {
+            try {
+                List<ServerEndpoint> endpoints = ServerEndpoint.parseList(
+                        new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+                if (!endpoints.isEmpty()) {
+                    return endpoints;
+                }
+                logger.info("В файле {} нет ни одного сервера", file);
+            } catch (IOException e) {
+                logger.info("Не удалось прочитать список серверов из {}: {}", file, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                logger.info("Не удалось разобрать список серверов из {}: {}", file, e.getMessage());
+            }
+        }
+
+        return defaultEndpoints();
+    }
+
+    private static List<ServerEndpoint> defaultEndpoints() {
+        return Collections.singletonList(new ServerEndpoint(SERVER_ADDRESS.getValue(), Integer.parseInt(SERVER_PORT.getValue())));
+    }
 }
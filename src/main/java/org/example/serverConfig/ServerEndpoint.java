@@ -0,0 +1,78 @@
+package org.example.serverConfig;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Адрес одного игрового сервера
+ */
+@Getter
+public final class ServerEndpoint {
+    private final String host;
+    private final int port;
+
+    public ServerEndpoint(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Разбор адреса вида {@code host:port}
+     */
+    public static ServerEndpoint parse(String address) {
+        String trimmed = address.trim();
+        int separator = trimmed.lastIndexOf(':');
+        if (separator <= 0 || separator == trimmed.length() - 1) {
+            throw new IllegalArgumentException("Ожидался адрес вида host:port: " + address);
+        }
+        try {
+            return new ServerEndpoint(trimmed.substring(0, separator), Integer.parseInt(trimmed.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Неверный порт в адресе " + address, e);
+        }
+    }
+
+    /**
+     * Разбор списка адресов через запятую или перевод строки, после # - комментарий
+     */
+    public static List<ServerEndpoint> parseList(String text) {
+        List<ServerEndpoint> endpoints = new ArrayList<>();
+        for (String line : text.split("\\R")) {
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            for (String address : line.split(",")) {
+                if (!address.trim().isEmpty()) {
+                    endpoints.add(parse(address));
+                }
+            }
+        }
+        return endpoints;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ServerEndpoint)) {
+            return false;
+        }
+        ServerEndpoint that = (ServerEndpoint) o;
+        return port == that.port && host.equals(that.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(host, port);
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+}
@@ -0,0 +1,245 @@
+package org.example.session;
+
+import org.example.concurrent.ClientExecutors;
+import org.example.listener.ServerListener;
+import org.example.serverConfig.EndpointProber;
+import org.example.serverConfig.ServerEndpoint;
+import org.example.transport.NioTransport;
+import org.example.transport.SocketProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Сеанс игры с сервером без привязки к JavaFX: команды протокола в виде методов,
+ * ответы сервера приходят подписчику {@link SessionListener}
+ */
+public class GameSession {
+    private static final Logger logger = LoggerFactory.getLogger(GameSession.class);
+
+    /**
+     * Текущее соединение, после восстановления сеанса заменяется новым
+     */
+    private volatile ServerListener serverListener;
+
+    /**
+     * Сервер сеанса, null - сеанс создан поверх готового ServerListener
+     */
+    private ServerEndpoint endpoint;
+
+    /**
+     * Восстановление после обрыва, null - отключено или сеанс создан поверх готового ServerListener
+     */
+    private SessionResumer resumer;
+
+    /**
+     * Открытие соединения с сервером и запуск чтения
+     */
+    @FunctionalInterface
+    interface Connector {
+        ServerListener open(ServerEndpoint endpoint, SessionListener listener) throws IOException;
+    }
+
+    public GameSession(ServerListener serverListener) {
+        this.serverListener = serverListener;
+    }
+
+    private GameSession() {
+    }
+
+    /**
+     * Подключение к серверу по блокирующему сокету: запуск чтения в исполнителе ввода-вывода и отправка CONNECT.
+     * Сокет настраивается профилем из системных свойств
+     */
+    public static GameSession connect(String host, int port, SessionListener listener) throws IOException {
+        return connect(host, port, SocketProfile.fromSystemProperties(), listener);
+    }
+
+    public static GameSession connect(String host, int port, SocketProfile profile, SessionListener listener) throws IOException {
+        return open(new ServerEndpoint(host, port), listener, (endpoint, link) -> {
+            ServerListener serverListener = new ServerListener(profile.open(endpoint.getHost(), endpoint.getPort()), link);
+            ClientExecutors.io().execute(serverListener);
+            return serverListener;
+        });
+    }
+
+    /**
+     * Подключение к самому быстрому серверу списка: серверы опрашиваются параллельно,
+     * при ошибке подключения берётся следующий по скорости. Один сервер не опрашивается
+     *
+     * @throws IOException ошибка подключения к последнему из серверов
+     */
+    public static GameSession connect(List<ServerEndpoint> endpoints, SessionListener listener) throws IOException {
+        if (endpoints.isEmpty()) {
+            throw new IOException("Список серверов пуст");
+        }
+        if (endpoints.size() == 1) {
+            ServerEndpoint endpoint = endpoints.get(0);
+            return connect(endpoint.getHost(), endpoint.getPort(), listener);
+        }
+
+        List<EndpointProber.ProbeResult> ranking = new EndpointProber().probe(endpoints);
+        logger.info("Опрос серверов: {}", ranking);
+
+        IOException lastError = null;
+        for (EndpointProber.ProbeResult result : ranking) {
+            ServerEndpoint endpoint = result.getEndpoint();
+            try {
+                GameSession session = connect(endpoint.getHost(), endpoint.getPort(), listener);
+                logger.info("Выбран сервер {}", endpoint);
+                return session;
+            } catch (IOException e) {
+                logger.info("Не удалось подключиться к серверу {}: {}", endpoint, e.getMessage());
+                lastError = e;
+            }
+        }
+        throw lastError;
+    }
+
+    /**
+     * Подключение к серверу через неблокирующий канал на общем цикле событий, без отдельного потока чтения
+     */
+    public static GameSession connectNio(String host, int port, SessionListener listener) throws IOException {
+        return open(new ServerEndpoint(host, port), listener, (endpoint, link) -> {
+            ServerListener serverListener = new ServerListener(NioTransport.connect(endpoint.getHost(), endpoint.getPort()), link);
+            serverListener.run();
+            return serverListener;
+        });
+    }
+
+    /**
+     * Открытие сеанса через подключение connector, в тестах - через поддельное
+     */
+    static GameSession open(ServerEndpoint endpoint, SessionListener listener, Connector connector) throws IOException {
+        GameSession session = new GameSession();
+        session.endpoint = endpoint;
+        SessionListener link = listener;
+        if (SessionResumer.isEnabled()) {
+            session.resumer = new SessionResumer(session, listener, endpoint, connector);
+            link = session.resumer.link();
+        }
+        session.serverListener = connector.open(endpoint, link);
+        session.send("CONNECT");
+        return session;
+    }
+
+    /**
+     * Ввод имени пользователя, сервер отвечает USER_ACK_CREATE или USER_ACK_CHECK
+     */
+    public void sendUsername(String username) {
+        send("USER/" + username);
+    }
+
+    public void sendPassword(String password) {
+        send("PASS/" + password);
+    }
+
+    public void returnFromPassword() {
+        send("RETURN_FROM_PASSWORD");
+    }
+
+    /**
+     * Запрос списка лобби
+     */
+    public void requestLobbies() {
+        send("MULTIPLAY");
+    }
+
+    /**
+     * Подписка на изменения списка лобби: сервер присылает LOBBY_ADDED, LOBBY_CHANGED и LOBBY_REMOVED
+     */
+    public void subscribeLobbies() {
+        send("LOBBY_SUBSCRIBE");
+    }
+
+    public void unsubscribeLobbies() {
+        send("LOBBY_UNSUBSCRIBE");
+    }
+
+    public void joinLobby(int lobbyId) {
+        send("JOIN_LOBBY_ID/" + lobbyId);
+    }
+
+    /**
+     * Выход из лобби, пока оппонент не подключился
+     */
+    public void exitWaiting() {
+        send("EXIT_WAITING");
+    }
+
+    public void ready() {
+        send("READY");
+    }
+
+    public void notReady() {
+        send("NOT_READY");
+    }
+
+    public void moveLeft() {
+        send("MOVE_LEFT");
+    }
+
+    public void moveRight() {
+        send("MOVE_RIGHT");
+    }
+
+    /**
+     * Финиш заезда
+     *
+     * @param timeMillis время заезда в миллисекундах
+     */
+    public void finish(long timeMillis) {
+        send("FINISH/" + timeMillis);
+    }
+
+    public void requestTopScoresByWins() {
+        send("MULTILPLAY_TOP_SCORES_LIST_BY_WINS");
+    }
+
+    public void requestTopScoresByTime() {
+        send("MULTILPLAY_TOP_SCORES_LIST_BY_TIME");
+    }
+
+    /**
+     * Завершение сеанса, соединение закроется после DISCONNECT_ACK
+     */
+    public void disconnect() {
+        send("DISCONNECT");
+        if (Objects.nonNull(resumer)) {
+            resumer.stop();
+        }
+    }
+
+    /**
+     * Закрытие соединения без уведомления сервера
+     */
+    public void close() {
+        if (Objects.nonNull(resumer)) {
+            resumer.stop();
+        }
+        serverListener.closeConnection();
+    }
+
+    public ServerEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public ServerListener getServerListener() {
+        return serverListener;
+    }
+
+    void replaceServerListener(ServerListener serverListener) {
+        this.serverListener = serverListener;
+    }
+
+    private void send(String message) {
+        if (Objects.nonNull(resumer)) {
+            resumer.send(message);
+        } else {
+            serverListener.sendMessage(message);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.session;
+
+import org.example.concurrent.ClientExecutors;
+import org.example.event.ServerEvent;
+import org.example.serverConfig.ServerEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Соединение, открытое заранее, пока пользователь ещё не нажал «Подключиться».
+ * Подключение и CONNECT - CONNECT_ACK выполняются в фоне, события до передачи сеанса копятся
+ * и воспроизводятся новому подписчику. Если сеанс никто не забрал за отведённое время, соединение закрывается
+ */
+public class PrewarmedSession implements SessionListener {
+
+    public static final String ENABLED_PROPERTY = "rally.prewarm.enabled";
+    public static final String IDLE_SECONDS_PROPERTY = "rally.prewarm.idleSeconds";
+
+    private static final long DEFAULT_IDLE_SECONDS = 120;
+
+    private static final Logger logger = LoggerFactory.getLogger(PrewarmedSession.class);
+
+    private final CompletableFuture<GameSession> connection = new CompletableFuture<>();
+    private final List<ServerEvent> buffered = new ArrayList<>();
+    private SessionListener target;
+    private boolean lost;
+    private boolean released;
+    private ScheduledFuture<?> expiry;
+
+    private PrewarmedSession() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    }
+
+    /**
+     * Запуск фонового подключения к самому быстрому серверу списка
+     */
+    public static PrewarmedSession start(List<ServerEndpoint> endpoints) {
+        PrewarmedSession prewarmed = new PrewarmedSession();
+        ClientExecutors.io().execute(() -> prewarmed.connect(endpoints));
+        return prewarmed;
+    }
+
+    private void connect(List<ServerEndpoint> endpoints) {
+        GameSession session;
+        try {
+            session = GameSession.connect(endpoints, this);
+        } catch (IOException e) {
+            logger.info("Заранее подключиться к серверу не удалось: {}", e.getMessage());
+            connection.complete(null);
+            return;
+        }
+
+        synchronized (this) {
+            if (released) {
+                session.close();
+                connection.complete(null);
+                return;
+            }
+            long idleSeconds = Long.getLong(IDLE_SECONDS_PROPERTY, DEFAULT_IDLE_SECONDS);
+            expiry = ClientExecutors.scheduler().schedule(this::expire, idleSeconds, TimeUnit.SECONDS);
+        }
+        logger.info("Соединение с сервером {} открыто заранее", session.getEndpoint());
+        connection.complete(session);
+    }
+
+    /**
+     * Передача сеанса подписчику. Если подключение ещё идёт, ждёт его завершения (не дольше таймаута подключения).
+     * Накопленные события, в том числе CONNECT_ACK, сразу уходят подписчику
+     *
+     * @return пусто, если заранее подключиться не удалось или соединение уже закрыто
+     */
+    public Optional<GameSession> claim(SessionListener listener) {
+        GameSession session = connection.join();
+        synchronized (this) {
+            if (Objects.isNull(session) || released || lost) {
+                release();
+                return Optional.empty();
+            }
+            released = true;
+            if (Objects.nonNull(expiry)) {
+                expiry.cancel(false);
+            }
+            for (ServerEvent event : buffered) {
+                listener.onEvent(event);
+            }
+            buffered.clear();
+            target = listener;
+        }
+        return Optional.of(session);
+    }
+
+    /**
+     * Закрытие неиспользованного соединения
+     */
+    public void release() {
+        synchronized (this) {
+            if (released && Objects.nonNull(target)) {
+                return;
+            }
+            released = true;
+            if (Objects.nonNull(expiry)) {
+                expiry.cancel(false);
+            }
+            buffered.clear();
+        }
+        GameSession session = connection.getNow(null);
+        if (Objects.nonNull(session)) {
+            session.close();
+        }
+    }
+
+    private void expire() {
+        logger.info("Заранее открытое соединение не понадобилось и закрыто");
+        release();
+    }
+
+    @Override
+    public void onEvent(ServerEvent event) {
+        SessionListener listener;
+        synchronized (this) {
+            if (Objects.isNull(target)) {
+                buffered.add(event);
+                return;
+            }
+            listener = target;
+        }
+        listener.onEvent(event);
+    }
+
+    @Override
+    public void onConnectionLost() {
+        SessionListener listener;
+        synchronized (this) {
+            if (Objects.isNull(target)) {
+                lost = true;
+                return;
+            }
+            listener = target;
+        }
+        listener.onConnectionLost();
+    }
+
+    /**
+     * До передачи сеанса токена восстановления ещё нет, поэтому эти события приходят только подписчику
+     */
+    @Override
+    public void onReconnecting(int attempt, long delayMillis) {
+        SessionListener listener = target();
+        if (Objects.nonNull(listener)) {
+            listener.onReconnecting(attempt, delayMillis);
+        }
+    }
+
+    @Override
+    public void onResumed() {
+        SessionListener listener = target();
+        if (Objects.nonNull(listener)) {
+            listener.onResumed();
+        }
+    }
+
+    private synchronized SessionListener target() {
+        return target;
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.session;
+
+import org.example.event.ServerEvent;
+
+/**
+ * Подписчик на события сеанса с сервером.
+ * Методы вызываются в сетевом потоке, переносить события в поток интерфейса - забота подписчика.
+ */
+public interface SessionListener {
+
+    /**
+     * Разобранное сообщение сервера
+     */
+    void onEvent(ServerEvent event);
+
+    /**
+     * Сообщение сервера, которое не удалось разобрать. Служебные сообщения (PONG, RESUME*) сюда не попадают.
+     * Нужно, чтобы счёт полученных сообщений совпадал с серверным, даже если событие не дошло до подписчика
+     */
+    default void onUnrecognized(String message) {
+    }
+
+    /**
+     * Соединение закрыто сервером или оборвалось с ошибкой, и восстановить сеанс не удалось
+     */
+    default void onConnectionLost() {
+    }
+
+    /**
+     * Соединение оборвалось, через delayMillis будет попытка восстановить сеанс
+     *
+     * @param attempt номер попытки, начиная с 1
+     */
+    default void onReconnecting(int attempt, long delayMillis) {
+    }
+
+    /**
+     * Сеанс восстановлен, неподтверждённые сообщения отправлены повторно
+     */
+    default void onResumed() {
+    }
+}
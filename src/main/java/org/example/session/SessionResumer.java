@@ -0,0 +1,285 @@
+package org.example.session;
+
+import org.example.concurrent.ClientExecutors;
+import org.example.event.ResumeEvent;
+import org.example.event.ServerCommand;
+import org.example.event.ServerEvent;
+import org.example.listener.ServerListener;
+import org.example.serverConfig.ServerEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Восстановление сеанса после обрыва соединения.
+ * После входа сервер присылает RESUME_TOKEN. При обрыве клиент с растущей задержкой переподключается к тому же серверу
+ * и отправляет RESUME/токен/сколько_сообщений_получено. Сервер отвечает RESUME_ACK_SUCCESS/сколько_сообщений_клиента_получено
+ * и досылает пропущенные клиентом сообщения, клиент повторно отправляет то, что сервер не получил.
+ * Служебные сообщения (PING, PONG, RESUME*) не считаются
+ */
+final class SessionResumer {
+
+    static final String ENABLED_PROPERTY = "rally.resume.enabled";
+    static final String MAX_ATTEMPTS_PROPERTY = "rally.resume.maxAttempts";
+    static final String INITIAL_DELAY_PROPERTY = "rally.resume.initialDelayMillis";
+    static final String MAX_DELAY_PROPERTY = "rally.resume.maxDelayMillis";
+
+    /**
+     * Сколько последних отправленных сообщений хранится для повторной отправки
+     */
+    private static final int MAX_UNACKED = 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionResumer.class);
+
+    private final GameSession session;
+    private final SessionListener listener;
+    private final ServerEndpoint endpoint;
+    private final GameSession.Connector connector;
+    private final int maxAttempts = Integer.getInteger(MAX_ATTEMPTS_PROPERTY, 8);
+    private final long initialDelayMillis = Long.getLong(INITIAL_DELAY_PROPERTY, 250L);
+    private final long maxDelayMillis = Long.getLong(MAX_DELAY_PROPERTY, 5_000L);
+
+    /**
+     * Отправленные сообщения, последнее из них имеет номер sentCount
+     */
+    private final ArrayDeque<String> unacked = new ArrayDeque<>();
+    private long sentCount;
+    private long receivedCount;
+    private String token;
+    private Link current;
+    private boolean resuming;
+    private boolean stopped;
+    private int attempt;
+
+    SessionResumer(GameSession session, SessionListener listener, ServerEndpoint endpoint, GameSession.Connector connector) {
+        this.session = session;
+        this.listener = listener;
+        this.endpoint = endpoint;
+        this.connector = connector;
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    }
+
+    /**
+     * Подписчик для очередного соединения. События старых соединений отбрасываются
+     */
+    synchronized SessionListener link() {
+        current = new Link();
+        return current;
+    }
+
+    /**
+     * Отправка с запоминанием сообщения. Пока сеанс восстанавливается, сообщение только запоминается
+     */
+    synchronized void send(String message) {
+        if (stopped) {
+            session.getServerListener().sendMessage(message);
+            return;
+        }
+        if (resuming) {
+            remember(message);
+            return;
+        }
+        if (session.getServerListener().sendMessage(message)) {
+            remember(message);
+        }
+    }
+
+    /**
+     * Сеанс завершается пользователем, обрыв больше не восстанавливается
+     */
+    synchronized void stop() {
+        stopped = true;
+        resuming = false;
+    }
+
+    private void remember(String message) {
+        sentCount++;
+        unacked.addLast(message);
+        if (unacked.size() > MAX_UNACKED) {
+            unacked.pollFirst();
+        }
+    }
+
+    private void onEvent(Link link, ServerEvent event) {
+        synchronized (this) {
+            if (link != current) {
+                return;
+            }
+            switch (event.getCommand()) {
+                case RESUME_TOKEN:
+                    token = ((ResumeEvent) event).getValue();
+                    return;
+                case RESUME_ACK_SUCCESS:
+                    if (resumed(((ResumeEvent) event).getValue())) {
+                        break;
+                    }
+                    giveUp("сервер получил сообщения, которых уже нет в журнале");
+                    return;
+                case RESUME_ACK_FAIL:
+                    giveUp("сервер не принял токен");
+                    return;
+                case DISCONNECT_ACK:
+                    stopped = true;
+                    receivedCount++;
+                    break;
+                default:
+                    receivedCount++;
+                    break;
+            }
+        }
+
+        if (event.getCommand() == ServerCommand.RESUME_ACK_SUCCESS) {
+            logger.info("Сеанс с сервером {} восстановлен", endpoint);
+            listener.onResumed();
+        } else {
+            listener.onEvent(event);
+        }
+    }
+
+    /**
+     * Неразобранное сообщение не доходит до подписчика, но сервер его посчитал
+     */
+    private synchronized void onUnrecognized(Link link) {
+        if (link == current) {
+            receivedCount++;
+        }
+    }
+
+    private void onConnectionLost(Link link) {
+        synchronized (this) {
+            if (link != current) {
+                return;
+            }
+            if (!stopped && token != null) {
+                if (!resuming) {
+                    logger.info("Соединение с сервером {} потеряно, восстанавливаем сеанс", endpoint);
+                    resuming = true;
+                    attempt = 0;
+                }
+                scheduleAttempt();
+                return;
+            }
+            stopped = true;
+        }
+        listener.onConnectionLost();
+    }
+
+    /**
+     * Вызывается под блокировкой
+     */
+    private void scheduleAttempt() {
+        attempt++;
+        if (attempt > maxAttempts) {
+            giveUp("исчерпаны попытки переподключения");
+            return;
+        }
+        long delay = backoff(attempt);
+        int number = attempt;
+        ClientExecutors.scheduler().schedule(() -> ClientExecutors.io().execute(this::tryResume), delay, TimeUnit.MILLISECONDS);
+        // Подписчик узнаёт о попытке вне блокировки, в потоке планировщика
+        ClientExecutors.scheduler().execute(() -> listener.onReconnecting(number, delay));
+    }
+
+    /**
+     * Экспоненциальная задержка со случайной половиной, чтобы клиенты после общего сбоя не приходили разом
+     */
+    private long backoff(int attempt) {
+        long delay = Math.min(maxDelayMillis, initialDelayMillis << Math.min(attempt - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void tryResume() {
+        String resume;
+        SessionListener link;
+        synchronized (this) {
+            if (stopped || !resuming) {
+                return;
+            }
+            resume = "RESUME/" + token + "/" + receivedCount;
+            link = link();
+        }
+
+        try {
+            ServerListener serverListener = connector.open(endpoint, link);
+            session.replaceServerListener(serverListener);
+            serverListener.sendMessage(resume);
+        } catch (IOException e) {
+            logger.info("Попытка {} восстановить сеанс не удалась: {}", attempt, e.getMessage());
+            synchronized (this) {
+                if (resuming) {
+                    scheduleAttempt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Вызывается под блокировкой
+     *
+     * @param acknowledged сколько сообщений клиента получил сервер
+     * @return false, если часть неполученных сообщений уже вытеснена из журнала
+     */
+    private boolean resumed(String acknowledged) {
+        long serverReceived;
+        try {
+            serverReceived = Long.parseLong(acknowledged);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        long firstUnacked = sentCount - unacked.size() + 1;
+        if (serverReceived < firstUnacked - 1 || serverReceived > sentCount) {
+            return false;
+        }
+        for (long i = firstUnacked; i <= serverReceived; i++) {
+            unacked.pollFirst();
+        }
+
+        resuming = false;
+        attempt = 0;
+        ServerListener serverListener = session.getServerListener();
+        for (String message : unacked) {
+            serverListener.resendMessage(message);
+        }
+        logger.info("Повторно отправлено сообщений: {}", unacked.size());
+        return true;
+    }
+
+    /**
+     * Вызывается под блокировкой, подписчик узнаёт об обрыве в потоке планировщика
+     */
+    private void giveUp(String reason) {
+        logger.info("Сеанс с сервером {} не восстановлен: {}", endpoint, reason);
+        stopped = true;
+        resuming = false;
+        current = null;
+        session.getServerListener().closeConnection();
+        ClientExecutors.scheduler().execute(listener::onConnectionLost);
+    }
+
+    /**
+     * Подписка одного соединения
+     */
+    private final class Link implements SessionListener {
+        @Override
+        public void onEvent(ServerEvent event) {
+            SessionResumer.this.onEvent(this, event);
+        }
+
+        @Override
+        public void onUnrecognized(String message) {
+            SessionResumer.this.onUnrecognized(this);
+        }
+
+        @Override
+        public void onConnectionLost() {
+            SessionResumer.this.onConnectionLost(this);
+        }
+    }
+}
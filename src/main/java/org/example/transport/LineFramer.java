@@ -0,0 +1,118 @@
+package org.example.transport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Разбиение входящего потока байт на строки.
+ * Байты читаются в direct-буфер, поиск '\n' идёт прямо по буферу, а строка декодируется
+ * из буфера в переиспользуемый CharBuffer без промежуточных массивов.
+ */
+final class LineFramer {
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    /**
+     * Защита от бесконечно длинной строки
+     */
+    private static final int MAX_LINE_LENGTH = 64 * 1024 * 1024;
+
+    private final CharsetDecoder decoder;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+    private CharBuffer chars = CharBuffer.allocate(INITIAL_CAPACITY / 8);
+
+    /**
+     * Начало ещё не прочитанной строки
+     */
+    private int lineStart;
+
+    /**
+     * Позиция, до которой буфер уже просмотрен в поисках '\n'
+     */
+    private int scanned;
+
+    LineFramer(Charset charset) {
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Буфер для очередного чтения из канала, в нём гарантированно есть свободное место
+     */
+    ByteBuffer writableBuffer() throws IOException {
+        if (lineStart > 0 && lineStart == buffer.position()) {
+            buffer.clear();
+            scanned = 0;
+            lineStart = 0;
+        } else if (!buffer.hasRemaining()) {
+            if (lineStart > 0) {
+                compact();
+            } else {
+                grow();
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Следующая полная строка из буфера без символов конца строки
+     *
+     * @return строка или null, если полной строки в буфере ещё нет
+     */
+    String nextLine() {
+        int end = buffer.position();
+        for (int i = scanned; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                int lineEnd = i > lineStart && buffer.get(i - 1) == '\r' ? i - 1 : i;
+                String line = decode(lineStart, lineEnd);
+                lineStart = i + 1;
+                scanned = i + 1;
+                return line;
+            }
+        }
+        scanned = end;
+        return null;
+    }
+
+    private String decode(int from, int to) {
+        int length = to - from;
+        int required = (int) (length * (double) decoder.maxCharsPerByte());
+        if (chars.capacity() < required) {
+            chars = CharBuffer.allocate(required);
+        }
+
+        int position = buffer.position();
+        buffer.limit(to).position(from);
+        chars.clear();
+        decoder.reset();
+        decoder.decode(buffer, chars, true);
+        decoder.flush(chars);
+        buffer.limit(buffer.capacity()).position(position);
+
+        chars.flip();
+        return chars.toString();
+    }
+
+    private void compact() {
+        int position = buffer.position();
+        buffer.limit(position).position(lineStart);
+        buffer.compact();
+        scanned -= lineStart;
+        lineStart = 0;
+    }
+
+    private void grow() throws IOException {
+        if (buffer.capacity() >= MAX_LINE_LENGTH) {
+            throw new IOException("Превышена максимальная длина сообщения " + MAX_LINE_LENGTH + " байт");
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(Math.min(buffer.capacity() * 2, MAX_LINE_LENGTH));
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Цикл событий на одном {@link Selector}: один поток обслуживает любое количество {@link NioTransport}
+ */
+public final class NioEventLoop implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(NioEventLoop.class);
+
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    private NioEventLoop(Selector selector) {
+        this.selector = selector;
+    }
+
+    /**
+     * Создание цикла событий и запуск его в отдельном потоке
+     */
+    public static NioEventLoop start(String threadName) throws IOException {
+        NioEventLoop loop = new NioEventLoop(Selector.open());
+        Thread thread = new Thread(loop, threadName);
+        thread.setDaemon(true);
+        thread.start();
+        return loop;
+    }
+
+    /**
+     * Общий для всего приложения цикл событий
+     */
+    public static NioEventLoop shared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Выполнение задачи в потоке цикла событий
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    SelectionKey register(NioTransport transport) throws IOException {
+        return transport.channel().register(selector, SelectionKey.OP_READ, transport);
+    }
+
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                logger.info("Ошибка ожидания событий селектора: {}", e.getMessage());
+                continue;
+            }
+
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+
+                NioTransport transport = (NioTransport) key.attachment();
+                if (key.isValid() && key.isReadable()) {
+                    transport.handleRead();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    transport.handleWrite();
+                }
+            }
+        }
+
+        for (SelectionKey key : selector.keys()) {
+            ((NioTransport) key.attachment()).close();
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // цикл уже остановлен
+        }
+    }
+
+    private static final class SharedHolder {
+        private static final NioEventLoop INSTANCE = startShared();
+
+        private static NioEventLoop startShared() {
+            try {
+                return NioEventLoop.start("nio-event-loop");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
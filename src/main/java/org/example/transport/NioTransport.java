@@ -0,0 +1,170 @@
+package org.example.transport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Неблокирующий транспорт поверх {@link SocketChannel}, обслуживаемый {@link NioEventLoop}.
+ * Чтение и запись выполняются только в потоке цикла событий, отправка из других потоков лишь ставит данные в очередь.
+ */
+public class NioTransport implements Transport {
+    private final SocketChannel channel;
+    private final NioEventLoop eventLoop;
+    private final Charset charset = Charset.defaultCharset();
+    private final LineFramer framer = new LineFramer(charset);
+    private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Буферы для записи нескольких сообщений одним системным вызовом
+     */
+    private final ByteBuffer[] gather = new ByteBuffer[64];
+    private final String remoteAddress;
+    private final Runnable enableWrite = this::enableWrite;
+    private TransportListener listener;
+    private SelectionKey key;
+    private volatile boolean closed;
+
+    public NioTransport(SocketChannel channel, NioEventLoop eventLoop) throws IOException {
+        channel.configureBlocking(false);
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+        this.remoteAddress = String.valueOf(channel.getRemoteAddress());
+    }
+
+    /**
+     * Подключение к серверу и создание транспорта на общем цикле событий
+     */
+    public static NioTransport connect(String host, int port) throws IOException {
+        return connect(host, port, SocketProfile.fromSystemProperties());
+    }
+
+    public static NioTransport connect(String host, int port, SocketProfile profile) throws IOException {
+        SocketChannel channel = profile.openChannel(host, port);
+        try {
+            return new NioTransport(channel, NioEventLoop.shared());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public void start(TransportListener listener) {
+        this.listener = listener;
+        eventLoop.execute(() -> {
+            try {
+                key = eventLoop.register(this);
+                if (!outbound.isEmpty()) {
+                    enableWrite();
+                }
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    @Override
+    public void send(String message) throws IOException {
+        if (closed) {
+            throw new IOException("Соединение с сервером " + remoteAddress + " закрыто");
+        }
+        outbound.add(charset.encode(message + '\n'));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (closed) {
+            throw new IOException("Соединение с сервером " + remoteAddress + " закрыто");
+        }
+        eventLoop.execute(enableWrite);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // соединение уже разорвано
+        }
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    void handleRead() {
+        try {
+            int read = channel.read(framer.writableBuffer());
+            if (read < 0) {
+                close();
+                listener.onClosed();
+                return;
+            }
+
+            String line;
+            while (!closed && (line = framer.nextLine()) != null) {
+                listener.onMessage(line);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    void handleWrite() {
+        try {
+            while (!outbound.isEmpty()) {
+                int count = 0;
+                for (ByteBuffer buffer : outbound) {
+                    if (count == gather.length) {
+                        break;
+                    }
+                    gather[count++] = buffer;
+                }
+
+                channel.write(gather, 0, count);
+                Arrays.fill(gather, 0, count, null);
+
+                for (int i = 0; i < count; i++) {
+                    if (outbound.peek().hasRemaining()) {
+                        return;
+                    }
+                    outbound.poll();
+                }
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void enableWrite() {
+        if (key != null && key.isValid()) {
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    private void fail(IOException e) {
+        if (!closed) {
+            close();
+            listener.onError(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Настройки сокета соединения с сервером.
+ * Ходы - короткие сообщения, поэтому по умолчанию алгоритм Нейгла выключен: сообщение уходит сразу,
+ * а не ждёт подтверждения предыдущего пакета. Размеры буферов 0 - оставить значения ОС.
+ * Задаются системными свойствами rally.socket.tcpNoDelay, rally.socket.sendBuffer,
+ * rally.socket.receiveBuffer, rally.socket.connectTimeoutMillis; результат виден в метриках rtt.*
+ */
+public final class SocketProfile {
+
+    public static final String TCP_NO_DELAY_PROPERTY = "rally.socket.tcpNoDelay";
+    public static final String SEND_BUFFER_PROPERTY = "rally.socket.sendBuffer";
+    public static final String RECEIVE_BUFFER_PROPERTY = "rally.socket.receiveBuffer";
+    public static final String CONNECT_TIMEOUT_PROPERTY = "rally.socket.connectTimeoutMillis";
+
+    private final boolean tcpNoDelay;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
+    private final int connectTimeoutMillis;
+
+    private SocketProfile(Builder builder) {
+        this.tcpNoDelay = builder.tcpNoDelay;
+        this.sendBufferSize = builder.sendBufferSize;
+        this.receiveBufferSize = builder.receiveBufferSize;
+        this.connectTimeoutMillis = builder.connectTimeoutMillis;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Профиль из системных свойств, незаданные свойства берутся по умолчанию
+     */
+    public static SocketProfile fromSystemProperties() {
+        Builder defaults = new Builder();
+        return builder()
+                .tcpNoDelay(Boolean.parseBoolean(System.getProperty(TCP_NO_DELAY_PROPERTY, String.valueOf(defaults.tcpNoDelay))))
+                .sendBufferSize(Integer.getInteger(SEND_BUFFER_PROPERTY, defaults.sendBufferSize))
+                .receiveBufferSize(Integer.getInteger(RECEIVE_BUFFER_PROPERTY, defaults.receiveBufferSize))
+                .connectTimeoutMillis(Integer.getInteger(CONNECT_TIMEOUT_PROPERTY, defaults.connectTimeoutMillis))
+                .build();
+    }
+
+    /**
+     * Открытие сокета с настройками профиля и подключение с таймаутом
+     */
+    public Socket open(String host, int port) throws IOException {
+        Socket socket = new Socket();
+        try {
+            configure(socket);
+            socket.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Открытие блокирующего канала с настройками профиля, после подключения его можно перевести в неблокирующий режим
+     */
+    public SocketChannel openChannel(String host, int port) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            // Таймаут подключения поддерживается только через сокет блокирующего канала
+            configure(channel.socket());
+            channel.socket().connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Настройка ещё не подключённого сокета: размер приёмного буфера влияет на окно TCP только до подключения
+     */
+    public void configure(Socket socket) throws SocketException {
+        socket.setTcpNoDelay(tcpNoDelay);
+        if (sendBufferSize > 0) {
+            socket.setSendBufferSize(sendBufferSize);
+        }
+        if (receiveBufferSize > 0) {
+            socket.setReceiveBufferSize(receiveBufferSize);
+        }
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "tcpNoDelay=" + tcpNoDelay + ", sendBuffer=" + sendBufferSize + ", receiveBuffer=" + receiveBufferSize
+                + ", connectTimeout=" + connectTimeoutMillis + " мс";
+    }
+
+    public static final class Builder {
+        private boolean tcpNoDelay = true;
+        private int sendBufferSize;
+        private int receiveBufferSize;
+        private int connectTimeoutMillis = 5_000;
+
+        private Builder() {
+        }
+
+        public Builder tcpNoDelay(boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+            return this;
+        }
+
+        /**
+         * Размер буфера отправки в байтах, 0 - значение ОС
+         */
+        public Builder sendBufferSize(int sendBufferSize) {
+            this.sendBufferSize = sendBufferSize;
+            return this;
+        }
+
+        /**
+         * Размер буфера приёма в байтах, 0 - значение ОС
+         */
+        public Builder receiveBufferSize(int receiveBufferSize) {
+            this.receiveBufferSize = receiveBufferSize;
+            return this;
+        }
+
+        /**
+         * Сколько ждать установки соединения, 0 - без ограничения
+         */
+        public Builder connectTimeoutMillis(int connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            return this;
+        }
+
+        public SocketProfile build() {
+            return new SocketProfile(this);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.transport;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+
+/**
+ * Блокирующий транспорт поверх {@link Socket}: на каждое соединение нужен отдельный поток чтения
+ */
+public class SocketTransport implements Transport {
+    private final Socket socket;
+    private final BufferedReader input;
+    private final PrintWriter output;
+    private final String remoteAddress;
+    private volatile boolean closed;
+
+    public SocketTransport(Socket socket) throws IOException {
+        this.socket = socket;
+        this.input = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        this.output = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream())), false);
+        this.remoteAddress = String.valueOf(socket.getInetAddress());
+    }
+
+    @Override
+    public void start(TransportListener listener) {
+        try {
+            while (!closed) {
+                String message = input.readLine();
+                if (message == null) {
+                    listener.onClosed();
+                    return;
+                }
+                listener.onMessage(message);
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                listener.onError(e);
+            }
+        }
+    }
+
+    @Override
+    public void setReadTimeout(int timeoutMillis) throws IOException {
+        socket.setSoTimeout(timeoutMillis);
+    }
+
+    @Override
+    public void send(String message) {
+        output.println(message);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // PrintWriter не бросает исключений, ошибка записи видна только после flush через checkError
+        output.flush();
+        if (output.checkError()) {
+            throw new IOException("Ошибка записи в сокет " + remoteAddress);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            socket.close();
+            input.close();
+            output.close();
+        } catch (IOException ignored) {
+            // соединение уже разорвано
+        }
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+}
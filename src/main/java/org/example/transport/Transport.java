@@ -0,0 +1,43 @@
+package org.example.transport;
+
+import java.io.IOException;
+
+/**
+ * Канал обмена строковыми сообщениями с сервером.
+ * Каждое сообщение - одна строка, завершённая символом '\n'.
+ */
+public interface Transport {
+
+    /**
+     * Запуск приёма сообщений. Блокирующие реализации читают сообщения в вызывающем потоке
+     * до закрытия соединения, неблокирующие регистрируют канал в цикле событий и сразу возвращают управление.
+     */
+    void start(TransportListener listener);
+
+    /**
+     * Сколько ждать очередного сообщения, прежде чем считать соединение оборванным, 0 - ждать бесконечно.
+     * Нужно только блокирующим реализациям: неблокирующие узнают о молчании сервера от heartbeat
+     */
+    default void setReadTimeout(int timeoutMillis) throws IOException {
+    }
+
+    /**
+     * Запись одного сообщения в буфер отправки. Данные уходят серверу при вызове {@link #flush()}
+     */
+    void send(String message) throws IOException;
+
+    /**
+     * Отправка всех записанных сообщений одной операцией записи
+     */
+    void flush() throws IOException;
+
+    /**
+     * Закрытие соединения. После вызова слушатель больше не получает событий
+     */
+    void close();
+
+    /**
+     * Адрес сервера для логирования
+     */
+    String getRemoteAddress();
+}
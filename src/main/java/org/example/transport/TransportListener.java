@@ -0,0 +1,24 @@
+package org.example.transport;
+
+import java.io.IOException;
+
+/**
+ * Получатель событий транспорта
+ */
+public interface TransportListener {
+
+    /**
+     * Получено сообщение от сервера
+     */
+    void onMessage(String message);
+
+    /**
+     * Сервер закрыл соединение
+     */
+    void onClosed();
+
+    /**
+     * Ошибка ввода/вывода при работе с сервером
+     */
+    void onError(IOException e);
+}
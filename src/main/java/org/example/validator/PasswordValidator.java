@@ -1,20 +1,20 @@
 package org.example.validator;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+/**
+ * Пароль: не короче 5 символов, хотя бы одна заглавная и одна строчная буква, цифра и спецсимвол
+ */
+public class PasswordValidator implements Validator {
 
-public class PasswordValidator implements Validator{
-    @Override
-    public boolean validate(String password) {
-        // Регулярное выражение для валидации имени пользователя
-        String regex = "^(?=.*[A-Z])(?=.*[a-z])(?=.*\\d)(?=.*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>/?])[a-zA-Z\\d!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>/?]{5,}$";
-
-        // Компиляция регулярного выражения
-        Pattern pattern = Pattern.compile(regex);
+    private static final RuleSet RULES = RuleSet.builder()
+            .minLength(5)
+            .require(RuleSet.UPPERCASE, ValidationResult.MISSING_UPPERCASE)
+            .require(RuleSet.LOWERCASE, ValidationResult.MISSING_LOWERCASE)
+            .require(RuleSet.DIGIT, ValidationResult.MISSING_DIGIT)
+            .require(RuleSet.SPECIAL, ValidationResult.MISSING_SPECIAL)
+            .build();
 
-        // Проверка имени пользователя
-        Matcher matcher = pattern.matcher(password);
-
-        return matcher.matches();
+    @Override
+    public ValidationResult check(CharSequence password) {
+        return RULES.check(password);
     }
 }
@@ -0,0 +1,159 @@
+package org.example.validator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Скомпилированный набор правил: границы длины, допустимый алфавит и обязательные классы символов.
+ * Строка проверяется за один проход по таблице классов символов, без выделения памяти.
+ */
+public final class RuleSet {
+
+    /**
+     * Классы символов, битовые маски
+     */
+    public static final int DIGIT = 1;
+    public static final int UPPERCASE = 1 << 1;
+    public static final int LOWERCASE = 1 << 2;
+    public static final int SPECIAL = 1 << 3;
+    public static final int LETTER = UPPERCASE | LOWERCASE;
+
+    /**
+     * Спецсимволы, разрешённые в имени и пароле
+     */
+    public static final String SPECIAL_CHARACTERS = "!@#$%^&*()_+-=[]{};':\"\\|,.<>/?";
+
+    private static final int ASCII_SIZE = 128;
+
+    /**
+     * Класс каждого символа ASCII, 0 - символ не входит ни в один класс
+     */
+    private static final byte[] CHARACTER_CLASSES = new byte[ASCII_SIZE];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            CHARACTER_CLASSES[c] = DIGIT;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            CHARACTER_CLASSES[c] = UPPERCASE;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            CHARACTER_CLASSES[c] = LOWERCASE;
+        }
+        for (int i = 0; i < SPECIAL_CHARACTERS.length(); i++) {
+            CHARACTER_CLASSES[SPECIAL_CHARACTERS.charAt(i)] = SPECIAL;
+        }
+    }
+
+    private final int minLength;
+    private final int maxLength;
+    private final int allowedClasses;
+
+    /**
+     * Обязательные классы: в строке должен встретиться хотя бы один символ из requiredMasks[i],
+     * иначе результат missingResults[i]
+     */
+    private final int[] requiredMasks;
+    private final ValidationResult[] missingResults;
+
+    private RuleSet(Builder builder) {
+        this.minLength = builder.minLength;
+        this.maxLength = builder.maxLength;
+        this.allowedClasses = builder.allowedClasses;
+        this.requiredMasks = new int[builder.requiredMasks.size()];
+        this.missingResults = builder.missingResults.toArray(new ValidationResult[0]);
+        for (int i = 0; i < requiredMasks.length; i++) {
+            requiredMasks[i] = builder.requiredMasks.get(i);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Проверка строки. Сначала допустимость символов, затем длина, затем обязательные классы в порядке объявления
+     */
+    public ValidationResult check(CharSequence data) {
+        if (data == null) {
+            return minLength > 0 ? ValidationResult.TOO_SHORT : ValidationResult.VALID;
+        }
+
+        int seen = 0;
+        int length = data.length();
+        for (int i = 0; i < length; i++) {
+            char c = data.charAt(i);
+            int characterClass = c < ASCII_SIZE ? CHARACTER_CLASSES[c] & allowedClasses : 0;
+            if (characterClass == 0) {
+                return ValidationResult.INVALID_CHARACTER;
+            }
+            seen |= characterClass;
+        }
+
+        if (length < minLength) {
+            return ValidationResult.TOO_SHORT;
+        }
+        if (length > maxLength) {
+            return ValidationResult.TOO_LONG;
+        }
+        for (int i = 0; i < requiredMasks.length; i++) {
+            if ((seen & requiredMasks[i]) == 0) {
+                return missingResults[i];
+            }
+        }
+        return ValidationResult.VALID;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public static final class Builder {
+        private int minLength;
+        private int maxLength = Integer.MAX_VALUE;
+        private int allowedClasses = DIGIT | LETTER | SPECIAL;
+        private final List<Integer> requiredMasks = new ArrayList<>();
+        private final List<ValidationResult> missingResults = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder minLength(int minLength) {
+            this.minLength = minLength;
+            return this;
+        }
+
+        public Builder maxLength(int maxLength) {
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        /**
+         * Допустимые классы символов, по умолчанию все
+         */
+        public Builder allow(int classes) {
+            this.allowedClasses = classes;
+            return this;
+        }
+
+        /**
+         * Хотя бы один символ из классов mask, иначе результат проверки missing
+         */
+        public Builder require(int mask, ValidationResult missing) {
+            requiredMasks.add(mask);
+            missingResults.add(missing);
+            return this;
+        }
+
+        public RuleSet build() {
+            if (minLength > maxLength) {
+                throw new IllegalStateException("Минимальная длина " + minLength + " больше максимальной " + maxLength);
+            }
+            return new RuleSet(this);
+        }
+    }
+}
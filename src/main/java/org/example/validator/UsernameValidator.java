@@ -1,21 +1,19 @@
 package org.example.validator;
 
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
-
+/**
+ * Имя пользователя: от 5 до 20 символов, хотя бы одна буква и одна цифра
+ */
 public class UsernameValidator implements Validator {
 
-    @Override
-    public boolean validate(String username) {
-        // Регулярное выражение для валидации имени пользователя
-        String regex = "^(?=.*\\d)(?=.*[a-zA-Z])[a-zA-Z\\d!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>/?]{5,20}$";
-
-        // Компиляция регулярного выражения
-        Pattern pattern = Pattern.compile(regex);
+    private static final RuleSet RULES = RuleSet.builder()
+            .minLength(5)
+            .maxLength(20)
+            .require(RuleSet.DIGIT, ValidationResult.MISSING_DIGIT)
+            .require(RuleSet.LETTER, ValidationResult.MISSING_LETTER)
+            .build();
 
-        // Проверка имени пользователя
-        Matcher matcher = pattern.matcher(username);
-
-        return matcher.matches();
+    @Override
+    public ValidationResult check(CharSequence username) {
+        return RULES.check(username);
     }
 }
@@ -0,0 +1,33 @@
+package org.example.validator;
+
+/**
+ * Результат проверки: успех или первое нарушенное правило
+ */
+public enum ValidationResult {
+    VALID(""),
+    INVALID_CHARACTER("Недопустимый символ: разрешены только латинские буквы, цифры и спецсимволы"),
+    TOO_SHORT("Слишком мало символов"),
+    TOO_LONG("Слишком много символов"),
+    MISSING_LETTER("Нужна хотя бы одна латинская буква"),
+    MISSING_UPPERCASE("Нужна хотя бы одна заглавная буква"),
+    MISSING_LOWERCASE("Нужна хотя бы одна строчная буква"),
+    MISSING_DIGIT("Нужна хотя бы одна цифра"),
+    MISSING_SPECIAL("Нужен хотя бы один спецсимвол");
+
+    private final String hint;
+
+    ValidationResult(String hint) {
+        this.hint = hint;
+    }
+
+    public boolean isValid() {
+        return this == VALID;
+    }
+
+    /**
+     * Подсказка для пользователя, что именно исправить
+     */
+    public String getHint() {
+        return hint;
+    }
+}
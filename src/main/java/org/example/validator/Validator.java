@@ -5,5 +5,13 @@ package org.example.validator;
  * Базовый интерфейс для валидатора
  */
 public interface Validator {
-    boolean validate(String data);
+
+    /**
+     * Проверка с указанием первого нарушенного правила
+     */
+    ValidationResult check(CharSequence data);
+
+    default boolean validate(String data) {
+        return check(data).isValid();
+    }
 }
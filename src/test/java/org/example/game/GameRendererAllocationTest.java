@@ -0,0 +1,127 @@
+package org.example.game;
+
+import org.example.car.CarSprites;
+import org.example.model.Track;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Кадр {@link GameRenderer} не выделяет память: окно трассы сдвигается на месте, строки берутся
+ * битовыми масками, а рисует он на заглушку поверхности вместо холста JavaFX
+ */
+class GameRendererAllocationTest {
+
+    private static final int TRACK_ROWS = 1000;
+    private static final int VISIBLE_ROWS = 10;
+    private static final int CELL_SIZE = CarSprites.CELL_SIZE;
+    private static final int WARMUP_FRAMES = 200_000;
+    private static final int FRAMES = 10_000;
+
+    @Test
+    void cachedFramesDoNotAllocate() {
+        assertFramesDoNotAllocate(GameRenderer.Mode.CACHED, 10);
+    }
+
+    @Test
+    void immediateFramesDoNotAllocate() {
+        assertFramesDoNotAllocate(GameRenderer.Mode.IMMEDIATE, 10);
+    }
+
+    /**
+     * Трасса шире битовой маски рисуется по клеткам
+     */
+    @Test
+    void wideTrackFramesDoNotAllocate() {
+        assertFramesDoNotAllocate(GameRenderer.Mode.CACHED, Long.SIZE + 6);
+    }
+
+    private void assertFramesDoNotAllocate(GameRenderer.Mode mode, int width) {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported(),
+                "JVM не считает выделенную потоком память");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        CountingSurface surface = new CountingSurface();
+        GameRenderer renderer = new GameRenderer(surface, mode);
+        Viewport viewport = new Viewport(track(width), VISIBLE_ROWS);
+        renderFrames(renderer, viewport, WARMUP_FRAMES);
+
+        long threadId = Thread.currentThread().getId();
+        // Первые вызовы счётчика сами могут выделить память
+        threads.getThreadAllocatedBytes(threadId);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        renderFrames(renderer, viewport, FRAMES);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(0, allocated, "Байт выделено за " + FRAMES + " кадров в режиме " + mode);
+        assertTrue(surface.drawn > 0, "Кадры ничего не нарисовали");
+    }
+
+    /**
+     * Трасса сдвигается на пиксель каждые два кадра и на строку каждые 2 * CELL_SIZE кадров,
+     * машинка время от времени перестраивается: есть и полная перерисовка, и кадры без изменений
+     */
+    private static void renderFrames(GameRenderer renderer, Viewport viewport, int frames) {
+        for (int frame = 0; frame < frames; frame++) {
+            int pixel = frame / 2;
+            viewport.scrollTo((pixel / CELL_SIZE) % TRACK_ROWS);
+            int carX = (frame / 37) % viewport.getWidth();
+            renderer.renderFrame(viewport, pixel % CELL_SIZE, carX, VISIBLE_ROWS - 1);
+        }
+    }
+
+    private static Track track(int width) {
+        int[][] gameField = new int[TRACK_ROWS][width];
+        for (int row = 0; row < TRACK_ROWS; row++) {
+            gameField[row][(row * 7) % width] = 1;
+        }
+        return Track.of(gameField);
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threads : null;
+    }
+
+    /**
+     * Поверхность без JavaFX: только считает, что на ней нарисовано
+     */
+    private static final class CountingSurface implements FrameSurface {
+        private long drawn;
+        private long checksum;
+
+        @Override
+        public void clear() {
+            drawn++;
+        }
+
+        @Override
+        public void fillCell(int x, int y, boolean obstacle) {
+            drawn++;
+            checksum += obstacle ? x + y : 0;
+        }
+
+        @Override
+        public void drawRow(long bits, int lanes, int screenY, int height) {
+            drawn++;
+            checksum += bits + screenY + height;
+        }
+
+        @Override
+        public void drawTile(int x, boolean obstacle, int screenY, int height) {
+            drawn++;
+            checksum += obstacle ? x + screenY : height;
+        }
+
+        @Override
+        public void drawCar(int x, int y) {
+            drawn++;
+            checksum += x + y;
+        }
+    }
+}
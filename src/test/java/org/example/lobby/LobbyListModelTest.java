@@ -0,0 +1,131 @@
+package org.example.lobby;
+
+import org.example.jsonparser.JsonParser;
+import org.example.model.Lobby;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Список на экране после каждого изменения совпадает с тем, что индекс находит по тому же запросу заново.
+ * Изменения случайные, но с фиксированным зерном: добавления, изменения, удаления и пачки из двух лобби
+ */
+class LobbyListModelTest {
+
+    private static final int LOBBIES = 1000;
+
+    /**
+     * id берутся чуть шире начального списка, чтобы часть изменений добавляла новые лобби
+     */
+    private static final int IDS = LOBBIES + LOBBIES / 10;
+    private static final int STEPS = 2000;
+
+    private final Random random = new Random(7);
+
+    @Test
+    void unfilteredListFollowsIndex() {
+        assertFollowsIndex(LobbyQuery.ALL);
+    }
+
+    @Test
+    void freeSlotsFilterFollowsIndex() {
+        assertFollowsIndex(LobbyQuery.builder().minFreeSlots(1).startingGame(false).build());
+    }
+
+    @Test
+    void nameSearchSortedByNameFollowsIndex() {
+        assertFollowsIndex(LobbyQuery.builder().text("alp").order(LobbyQuery.Order.NAME).build());
+    }
+
+    @Test
+    void playerSearchFollowsIndex() {
+        assertFollowsIndex(LobbyQuery.builder().text("p1").build());
+    }
+
+    @Test
+    void mostPlayersOrderFollowsIndex() {
+        assertFollowsIndex(LobbyQuery.builder().minFreeSlots(1).order(LobbyQuery.Order.MOST_PLAYERS).build());
+    }
+
+    @Test
+    void limitedQueryFollowsIndex() {
+        assertFollowsIndex(LobbyQuery.builder().order(LobbyQuery.Order.NAME).limit(20).build());
+    }
+
+    @Test
+    void queryChangesFollowIndex() {
+        LobbyQuery[] queries = {
+                LobbyQuery.ALL,
+                LobbyQuery.builder().text("beta").order(LobbyQuery.Order.NAME).build(),
+                LobbyQuery.builder().minFreeSlots(2).build(),
+        };
+        LobbyListModel model = new LobbyListModel();
+        model.applySnapshot(initialLobbies());
+        for (int step = 0; step < STEPS; step++) {
+            if (step % 100 == 0) {
+                model.setQuery(queries[(step / 100) % queries.length]);
+            }
+            applyRandomDelta(model);
+            assertEquals(model.getIndex().find(model.getQuery()), model.getItems(), "Шаг " + step);
+        }
+    }
+
+    private void assertFollowsIndex(LobbyQuery query) {
+        LobbyListModel model = new LobbyListModel();
+        model.applySnapshot(initialLobbies());
+        model.setQuery(query);
+        assertEquals(model.getIndex().find(query), model.getItems(), "Начальный список");
+
+        for (int step = 0; step < STEPS; step++) {
+            applyRandomDelta(model);
+            assertEquals(model.getIndex().find(query), model.getItems(), "Шаг " + step);
+        }
+    }
+
+    /**
+     * Как LOBBY_CHANGED/LOBBY_ADDED с одним или двумя лобби и LOBBY_REMOVED
+     */
+    private void applyRandomDelta(LobbyListModel model) {
+        int kind = random.nextInt(10);
+        if (kind < 6) {
+            model.putAll(parse("[" + lobbyJson(random.nextInt(IDS)) + "]"));
+        } else if (kind < 8) {
+            model.remove(new int[]{random.nextInt(IDS)});
+        } else {
+            model.putAll(parse("[" + lobbyJson(random.nextInt(IDS)) + "," + lobbyJson(random.nextInt(IDS)) + "]"));
+        }
+    }
+
+    private List<Lobby> initialLobbies() {
+        StringBuilder json = new StringBuilder("[");
+        for (int id = 0; id < LOBBIES; id++) {
+            if (id > 0) {
+                json.append(',');
+            }
+            json.append(lobbyJson(id));
+        }
+        return parse(json.append(']').toString());
+    }
+
+    /**
+     * Лобби в формате сервера: названия повторяются, имена игроков пересекаются по префиксам
+     */
+    private String lobbyJson(int id) {
+        int players = random.nextInt(3);
+        return "{\"id\":" + id
+                + ",\"name_of_lobby\":\"" + (random.nextBoolean() ? "Alpha" : "beta") + "_" + random.nextInt(50) + "\""
+                + ",\"count_of_players\":" + players
+                + ",\"player1\":" + (players > 0 ? "\"p" + random.nextInt(100) + "\"" : "null")
+                + ",\"player2\":" + (players > 1 ? "\"q" + random.nextInt(100) + "\"" : "null")
+                + ",\"starting_game\":" + (players == 2 && random.nextBoolean())
+                + "}";
+    }
+
+    private static List<Lobby> parse(String json) {
+        return JsonParser.parseLobbies(new StringReader(json)).get();
+    }
+}
@@ -0,0 +1,255 @@
+package org.example.session;
+
+import org.example.event.ServerEvent;
+import org.example.listener.Heartbeat;
+import org.example.listener.ServerListener;
+import org.example.serverConfig.ServerEndpoint;
+import org.example.transport.Transport;
+import org.example.transport.TransportListener;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Счёт сообщений и повторная отправка при восстановлении сеанса.
+ * Сервер изображают поддельные соединения: тест сам присылает строки сервера и читает то, что отправил клиент.
+ * Клиент считает сообщения так же, как сервер: служебные PING, PONG и RESUME* не считаются,
+ * а неразобранные сообщения сервера считаются
+ */
+class SessionResumerTest {
+
+    private static final ServerEndpoint ENDPOINT = new ServerEndpoint("localhost", 0);
+    private static final long TIMEOUT_SECONDS = 5;
+
+    /**
+     * Соединения в порядке открытия: первое - при входе, следующие - при восстановлении
+     */
+    private final BlockingQueue<FakeTransport> connections = new LinkedBlockingQueue<>();
+    private final RecordingListener listener = new RecordingListener();
+
+    @BeforeAll
+    static void fastReconnect() {
+        System.setProperty(Heartbeat.ENABLED_PROPERTY, "false");
+        System.setProperty(SessionResumer.INITIAL_DELAY_PROPERTY, "1");
+        System.setProperty(SessionResumer.MAX_DELAY_PROPERTY, "10");
+    }
+
+    @AfterAll
+    static void restoreProperties() {
+        System.clearProperty(Heartbeat.ENABLED_PROPERTY);
+        System.clearProperty(SessionResumer.INITIAL_DELAY_PROPERTY);
+        System.clearProperty(SessionResumer.MAX_DELAY_PROPERTY);
+    }
+
+    @Test
+    void resumeCountsUnparsedMessagesButNotServiceOnes() throws Exception {
+        open();
+        FakeTransport first = nextConnection();
+        assertEquals("CONNECT", first.nextSent());
+
+        first.receive("CONNECT_ACK");
+        first.receive("RESUME_TOKEN/t1");
+        first.receive("PONG/1");
+        first.receive("SOMETHING_NEW/1");
+        first.receive("MULTIPLAY_ACK_FAIL");
+        first.drop();
+
+        assertEquals("RESUME/t1/3", nextConnection().nextSent());
+    }
+
+    @Test
+    void resendsMessagesTheServerMissed() throws Exception {
+        GameSession session = open();
+        FakeTransport first = nextConnection();
+        session.sendUsername("anna");
+        // PING отправляет heartbeat мимо сеанса, сервер его не считает
+        session.getServerListener().sendMessage("PING/1");
+        session.sendPassword("secret");
+        assertEquals("CONNECT", first.nextSent());
+        assertEquals("USER/anna", first.nextSent());
+        assertEquals("PING/1", first.nextSent());
+        assertEquals("PASS/secret", first.nextSent());
+
+        first.receive("RESUME_TOKEN/t2");
+        first.drop();
+
+        FakeTransport second = nextConnection();
+        assertEquals("RESUME/t2/0", second.nextSent());
+        second.receive("RESUME_ACK_SUCCESS/1");
+        assertEquals("USER/anna", second.nextSent());
+        assertEquals("PASS/secret", second.nextSent());
+        assertTrue(listener.resumed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Подписчик не узнал о восстановлении");
+
+        session.sendUsername("bob");
+        assertEquals("USER/bob", second.nextSent());
+    }
+
+    @Test
+    void messagesSentWhileResumingGoOutAfterAcknowledgement() throws Exception {
+        GameSession session = open();
+        FakeTransport first = nextConnection();
+        assertEquals("CONNECT", first.nextSent());
+        first.receive("RESUME_TOKEN/t3");
+        first.drop();
+
+        session.sendUsername("late");
+        FakeTransport second = nextConnection();
+        assertEquals("RESUME/t3/0", second.nextSent());
+        second.receive("RESUME_ACK_SUCCESS/1");
+        assertEquals("USER/late", second.nextSent());
+        assertNull(second.sent.poll(100, TimeUnit.MILLISECONDS), "Лишнее сообщение после восстановления");
+    }
+
+    @Test
+    void replaysTheWholeWindow() throws Exception {
+        GameSession session = open();
+        FakeTransport first = nextConnection();
+        sendUsernames(session, first, 1100);
+        first.receive("RESUME_TOKEN/t4");
+        first.drop();
+
+        FakeTransport second = nextConnection();
+        assertEquals("RESUME/t4/0", second.nextSent());
+        // Отправлено 1101 сообщение, в журнале последние 1024: с 78-го, то есть с USER/p76
+        second.receive("RESUME_ACK_SUCCESS/77");
+        for (int i = 76; i < 1100; i++) {
+            assertEquals("USER/p" + i, second.nextSent());
+        }
+        assertTrue(listener.resumed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Подписчик не узнал о восстановлении");
+    }
+
+    @Test
+    void givesUpWhenMissedMessagesLeftTheWindow() throws Exception {
+        GameSession session = open();
+        FakeTransport first = nextConnection();
+        sendUsernames(session, first, 1100);
+        first.receive("RESUME_TOKEN/t5");
+        first.drop();
+
+        FakeTransport second = nextConnection();
+        assertEquals("RESUME/t5/0", second.nextSent());
+        second.receive("RESUME_ACK_SUCCESS/76");
+        assertTrue(listener.lost.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Подписчик не узнал об обрыве");
+        assertTrue(second.closed, "Соединение не закрыто");
+    }
+
+    @Test
+    void givesUpWhenServerAcknowledgesMoreThanWasSent() throws Exception {
+        open();
+        FakeTransport first = nextConnection();
+        assertEquals("CONNECT", first.nextSent());
+        first.receive("RESUME_TOKEN/t6");
+        first.drop();
+
+        FakeTransport second = nextConnection();
+        assertEquals("RESUME/t6/0", second.nextSent());
+        second.receive("RESUME_ACK_SUCCESS/2");
+        assertTrue(listener.lost.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "Подписчик не узнал об обрыве");
+    }
+
+    private GameSession open() throws IOException {
+        return GameSession.open(ENDPOINT, listener, (endpoint, link) -> {
+            FakeTransport transport = new FakeTransport();
+            ServerListener serverListener = new ServerListener(transport, link);
+            serverListener.run();
+            connections.add(transport);
+            return serverListener;
+        });
+    }
+
+    private FakeTransport nextConnection() throws InterruptedException {
+        FakeTransport transport = connections.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(transport, "Клиент не подключился");
+        return transport;
+    }
+
+    private static void sendUsernames(GameSession session, FakeTransport transport, int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            session.sendUsername("p" + i);
+        }
+        assertEquals("CONNECT", transport.nextSent());
+        for (int i = 0; i < count; i++) {
+            assertEquals("USER/p" + i, transport.nextSent());
+        }
+    }
+
+    /**
+     * Соединение без сети: запоминает отправленное клиентом и передаёт клиенту строки сервера
+     */
+    private static final class FakeTransport implements Transport {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private volatile TransportListener listener;
+        private volatile boolean closed;
+
+        @Override
+        public void start(TransportListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void send(String message) {
+            sent.add(message);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return "fake";
+        }
+
+        void receive(String message) {
+            listener.onMessage(message);
+        }
+
+        /**
+         * Сервер закрыл соединение
+         */
+        void drop() {
+            listener.onClosed();
+        }
+
+        String nextSent() throws InterruptedException {
+            String message = sent.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(message, "Клиент ничего не отправил");
+            return message;
+        }
+    }
+
+    private static final class RecordingListener implements SessionListener {
+        private final CountDownLatch resumed = new CountDownLatch(1);
+        private final CountDownLatch lost = new CountDownLatch(1);
+
+        @Override
+        public void onEvent(ServerEvent event) {
+        }
+
+        @Override
+        public void onConnectionLost() {
+            lost.countDown();
+        }
+
+        @Override
+        public void onResumed() {
+            resumed.countDown();
+        }
+    }
+}